@@ -0,0 +1,149 @@
+package com.hurryyu.lifeclockview;
+
+import android.view.Choreographer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 进程内所有LifeClockView共享的动画时钟
+ * <p>
+ * 每帧只向Choreographer注册一个回调,在同一个回调中依次驱动所有已注册的{@link Client},
+ * 没有Client需要下一帧时不再请求vsync.
+ * 同一帧内起始时间与时长相同的动画(例如RecyclerView同一帧绑定的多个时钟)只计算一次缓动.
+ * Client在View detach时注销,因此每帧的开销只与屏幕上正在动画的时钟数量有关.
+ * 只能在UI线程中使用.
+ */
+final class LifeClockAnimationClock implements Choreographer.FrameCallback {
+    private static final int EASING_CACHE_SIZE = 4;
+
+    interface Client {
+        /**
+         * @return 是否还需要下一帧,返回false后自动注销
+         */
+        boolean onAnimationFrame(long frameTimeNanos);
+    }
+
+    private static LifeClockAnimationClock sInstance;
+
+    private final List<Client> mClients = new ArrayList<>();
+    private boolean mFrameScheduled;
+    private boolean mDispatching;
+    private boolean mHasRemovedClients;
+
+    /**
+     * 当前帧的缓动结果缓存,以(起始时间, 时长)为键,帧时间变化时清空
+     */
+    private long mEasingFrameTimeNanos = Long.MIN_VALUE;
+    private final long[] mEasingStartNanos = new long[EASING_CACHE_SIZE];
+    private final long[] mEasingDurationNanos = new long[EASING_CACHE_SIZE];
+    private final float[] mEasingValues = new float[EASING_CACHE_SIZE];
+    private int mEasingCount;
+    private int mEasingNext;
+
+    private LifeClockAnimationClock() {
+    }
+
+    static LifeClockAnimationClock get() {
+        if (sInstance == null) {
+            sInstance = new LifeClockAnimationClock();
+        }
+        return sInstance;
+    }
+
+    /**
+     * 注册后从下一帧开始回调,重复注册会被忽略
+     */
+    void register(Client client) {
+        if (!mClients.contains(client)) {
+            mClients.add(client);
+        }
+        if (!mFrameScheduled) {
+            mFrameScheduled = true;
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+    }
+
+    void unregister(Client client) {
+        int index = mClients.indexOf(client);
+        if (index < 0) {
+            return;
+        }
+        if (mDispatching) {
+            // 分发过程中只置空,分发结束后统一移除
+            mClients.set(index, null);
+            mHasRemovedClients = true;
+        } else {
+            mClients.remove(index);
+        }
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        mFrameScheduled = false;
+        mDispatching = true;
+        // 分发过程中新注册的Client从下一帧开始
+        int count = mClients.size();
+        for (int i = 0; i < count; i++) {
+            Client client = mClients.get(i);
+            if (client != null && !client.onAnimationFrame(frameTimeNanos) && mClients.get(i) == client) {
+                mClients.set(i, null);
+                mHasRemovedClients = true;
+            }
+        }
+        mDispatching = false;
+        if (mHasRemovedClients) {
+            mHasRemovedClients = false;
+            for (int i = mClients.size() - 1; i >= 0; i--) {
+                if (mClients.get(i) == null) {
+                    mClients.remove(i);
+                }
+            }
+        }
+        if (!mClients.isEmpty() && !mFrameScheduled) {
+            mFrameScheduled = true;
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+    }
+
+    /**
+     * 线性进度,范围[0, 1]
+     */
+    static float linearFraction(long frameTimeNanos, long startNanos, long durationNanos) {
+        if (durationNanos <= 0) {
+            return 1F;
+        }
+        long elapsed = frameTimeNanos - startNanos;
+        if (elapsed <= 0) {
+            return 0F;
+        }
+        return elapsed >= durationNanos ? 1F : (float) elapsed / durationNanos;
+    }
+
+    /**
+     * 先加速后减速的进度(与AccelerateDecelerateInterpolator相同),同一帧内相同的参数只计算一次
+     */
+    float easedFraction(long frameTimeNanos, long startNanos, long durationNanos) {
+        if (frameTimeNanos != mEasingFrameTimeNanos) {
+            mEasingFrameTimeNanos = frameTimeNanos;
+            mEasingCount = 0;
+            mEasingNext = 0;
+        }
+        for (int i = 0; i < mEasingCount; i++) {
+            if (mEasingStartNanos[i] == startNanos && mEasingDurationNanos[i] == durationNanos) {
+                return mEasingValues[i];
+            }
+        }
+        float fraction = linearFraction(frameTimeNanos, startNanos, durationNanos);
+        float value = (float) (Math.cos((fraction + 1) * Math.PI) / 2.0) + 0.5F;
+        int slot = mEasingNext;
+        mEasingStartNanos[slot] = startNanos;
+        mEasingDurationNanos[slot] = durationNanos;
+        mEasingValues[slot] = value;
+        mEasingNext = (slot + 1) % EASING_CACHE_SIZE;
+        if (mEasingCount < EASING_CACHE_SIZE) {
+            mEasingCount++;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,84 @@
+package com.hurryyu.lifeclockview;
+
+import android.graphics.Bitmap;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+
+/**
+ * 按尺寸复用Bitmap的简单对象池,供{@link LifeClockImageRenderer}批量导出时使用
+ * <p>
+ * 空闲Bitmap的总字节数不超过构造时指定的上限,超出时回收最久未使用的Bitmap.
+ * 所有方法都是线程安全的.
+ */
+public final class LifeClockBitmapPool {
+    private final ArrayDeque<Bitmap> mFree = new ArrayDeque<>();
+    private final long mMaxBytes;
+    private long mFreeBytes;
+
+    /**
+     * @param maxBytes 空闲Bitmap占用的最大字节数
+     */
+    public LifeClockBitmapPool(long maxBytes) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("maxBytes must be >= 0, was " + maxBytes);
+        }
+        mMaxBytes = maxBytes;
+    }
+
+    /**
+     * 获取一个指定尺寸的ARGB_8888 Bitmap,内容未清空,使用完毕后可通过{@link #release(Bitmap)}归还
+     */
+    public synchronized Bitmap acquire(int width, int height) {
+        Iterator<Bitmap> iterator = mFree.iterator();
+        while (iterator.hasNext()) {
+            Bitmap bitmap = iterator.next();
+            if (bitmap.getWidth() == width && bitmap.getHeight() == height) {
+                iterator.remove();
+                mFreeBytes -= bitmap.getAllocationByteCount();
+                return bitmap;
+            }
+        }
+        return Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+    }
+
+    /**
+     * 归还Bitmap,归还后调用方不能再使用它
+     */
+    public synchronized void release(Bitmap bitmap) {
+        if (bitmap == null || bitmap.isRecycled() || !bitmap.isMutable()) {
+            return;
+        }
+        int byteCount = bitmap.getAllocationByteCount();
+        if (byteCount > mMaxBytes) {
+            bitmap.recycle();
+            return;
+        }
+        mFree.addLast(bitmap);
+        mFreeBytes += byteCount;
+        while (mFreeBytes > mMaxBytes) {
+            Bitmap eldest = mFree.removeFirst();
+            mFreeBytes -= eldest.getAllocationByteCount();
+            eldest.recycle();
+        }
+    }
+
+    /**
+     * 回收所有空闲Bitmap
+     */
+    public synchronized void clear() {
+        for (Bitmap bitmap : mFree) {
+            bitmap.recycle();
+        }
+        mFree.clear();
+        mFreeBytes = 0;
+    }
+
+    public synchronized int getFreeCount() {
+        return mFree.size();
+    }
+
+    public synchronized long getFreeBytes() {
+        return mFreeBytes;
+    }
+}
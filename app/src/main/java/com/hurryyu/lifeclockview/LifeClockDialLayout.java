@@ -0,0 +1,274 @@
+package com.hurryyu.lifeclockview;
+
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.util.DisplayMetrics;
+import android.util.TypedValue;
+
+import com.hurryyu.lifeclockview.core.DialDimensions;
+import com.hurryyu.lifeclockview.core.DialGeometry;
+import com.hurryyu.lifeclockview.core.HitRegions;
+import com.hurryyu.lifeclockview.core.LabelLayout;
+import com.hurryyu.lifeclockview.core.TickRing;
+
+import java.util.List;
+
+/**
+ * 表盘布局缓存
+ * <p>
+ * 保存表盘上所有静态元素的位置(年龄文本坐标/基线/宽度、0岁圆点、出生日说明、编辑图标矩阵等)
+ * 以及所有已换算为px的尺寸,只在尺寸、屏幕密度或样式变化时重新计算,
+ * onDraw中只需直接读取这里的float值,不再进行三角函数运算、字符串解析与文本测量.
+ * 坐标系以View中心为原点.与Android无关的角度、年龄文本位置、点击测试以及dp/sp常量({@link DialDimensions})位于lifeclock-core模块中.
+ */
+final class LifeClockDialLayout {
+    static final String PERCENT_TIPS_STR = DialDimensions.PERCENT_TIPS_STR;
+    static final String ZERO_AGE_TIPS_STR = DialDimensions.ZERO_AGE_TIPS_STR;
+
+    static final int HIT_EDIT = 0;
+    static final int HIT_ZERO_CIRCLE = 1;
+
+    private final Rect mTextBoundsRect = new Rect();
+    private final Paint.FontMetrics mFontMetrics = new Paint.FontMetrics();
+
+    // ---------- 已换算为px的尺寸(只依赖屏幕密度) ----------
+    float mDensity;
+    float mPercentTextSize;
+    float mPercentTipsTextSize;
+    float mPercentStrMarginDot;
+    float mPercentTipsStrMarginPercentStr;
+    float mPointerLinePivotOffset;
+    float mPointerLineEndOffset;
+    float mZeroAgeTipsRectWidth;
+    float mZeroAgeTipsRectHeight;
+    float mZeroAgeTipsRectCorners;
+    float mZeroAgeTipsTextSize;
+    float mZeroAgeClickExtraBottom;
+    float mRemainingTextSize;
+    float mRemainingStrMarginPercentTips;
+    float mTickStrokeWidth;
+    float mTickOuterOffset;
+    float mTickMinorLength;
+    float mTickMajorLength;
+    float mTickMinSpacing;
+    float mScrubGrabHalfWidth;
+
+    // ---------- 年龄文本 ----------
+    int mLabelCount;
+    /**
+     * 年龄文本的中心点与对应年龄
+     */
+    final LabelLayout mLabelLayout = new LabelLayout();
+    String[] mLabels = new String[0];
+    float[] mLabelX = new float[0];
+    float[] mLabelBaselineY = new float[0];
+    float[] mLabelWidth = new float[0];
+
+    // ---------- 外圈刻度 ----------
+    boolean mTickRingVisible;
+    /**
+     * 刻度线段,按年龄从小到大排列,见{@link TickRing}
+     */
+    final TickRing mTickRing = new TickRing();
+
+    // ---------- 编辑图标 ----------
+    /**
+     * 编辑图标的目标高度(px),图标按此高度预先缩放,绘制时无需再缩放
+     */
+    int mEditIconHeight;
+    float mEditIconLeft;
+    float mEditIconTop;
+
+    // ---------- 0岁圆点与出生日说明 ----------
+    float mZeroAgeDownCircleCenterY;
+    final RectF mZeroAgeTipsRectF = new RectF();
+    float mZeroAgeTipsTextBaselineY;
+
+    // ---------- 点击区域 ----------
+    /**
+     * 点击区域(HIT_EDIT、HIT_ZERO_CIRCLE),与布局一同计算,触摸时直接查询
+     */
+    final HitRegions mHitRegions = new HitRegions(2);
+
+    // ---------- 指针 ----------
+    /**
+     * 指针终点的y坐标(指针以(0, 0)为起点,绘制前平移mPointerLinePivotOffset)
+     */
+    float mPointerLineEndY;
+
+    // ---------- 百分比文本 ----------
+    float mPercentTipsWidth;
+    float mPercentTipsHeight;
+    float mPercentWidth;
+    float mPercentHeight;
+    float mPercentBaselineYDown;
+    float mPercentBaselineYUp;
+    float mPercentTipsBaselineYDown;
+    float mPercentTipsBaselineYUp;
+
+    // ---------- 剩余时间文本(实时模式) ----------
+    private float mRemainingAscent;
+    private float mRemainingDescent;
+    float mRemainingBaselineYDown;
+    float mRemainingBaselineYUp;
+
+    /**
+     * 将所有dp/sp常量换算为px,需在屏幕密度或字体缩放变化后重新调用
+     */
+    void resolveDimensions(DisplayMetrics metrics) {
+        mDensity = metrics.density;
+        mPercentTextSize = sp2px(metrics, DialDimensions.PERCENT_STR_SIZE);
+        mPercentTipsTextSize = sp2px(metrics, DialDimensions.PERCENT_TIPS_STR_SIZE);
+        mPercentStrMarginDot = dp2px(metrics, DialDimensions.PERCENT_STR_MARGIN_DOT);
+        mPercentTipsStrMarginPercentStr = dp2px(metrics, DialDimensions.PERCENT_TIPS_STR_MARGIN_PERCENT_STR);
+        mPointerLinePivotOffset = dp2px(metrics, DialDimensions.POINTER_LINE_PIVOT_OFFSET);
+        mPointerLineEndOffset = dp2px(metrics, DialDimensions.POINTER_LINE_END_OFFSET);
+        mZeroAgeTipsRectWidth = dp2px(metrics, DialDimensions.ZERO_AGE_TIPS_RECT_WIDTH);
+        mZeroAgeTipsRectHeight = dp2px(metrics, DialDimensions.ZERO_AGE_TIPS_RECT_HEIGHT);
+        mZeroAgeTipsRectCorners = dp2px(metrics, DialDimensions.ZERO_AGE_TIPS_RECT_CORNERS);
+        mZeroAgeTipsTextSize = sp2px(metrics, DialDimensions.ZERO_AGE_TIPS_TEXT_SIZE);
+        mZeroAgeClickExtraBottom = dp2px(metrics, DialDimensions.ZERO_AGE_CLICK_EXTRA_BOTTOM);
+        mRemainingTextSize = sp2px(metrics, DialDimensions.REMAINING_STR_SIZE);
+        mRemainingStrMarginPercentTips = dp2px(metrics, DialDimensions.REMAINING_STR_MARGIN_PERCENT_TIPS);
+        mTickStrokeWidth = dp2px(metrics, DialDimensions.TICK_STROKE_WIDTH);
+        mTickOuterOffset = dp2px(metrics, DialDimensions.TICK_OUTER_OFFSET);
+        mTickMinorLength = dp2px(metrics, DialDimensions.TICK_MINOR_LENGTH);
+        mTickMajorLength = dp2px(metrics, DialDimensions.TICK_MAJOR_LENGTH);
+        mTickMinSpacing = dp2px(metrics, DialDimensions.TICK_MIN_SPACING);
+        mScrubGrabHalfWidth = dp2px(metrics, DialDimensions.SCRUB_GRAB_HALF_WIDTH);
+    }
+
+    /**
+     * 计算表盘上所有静态元素的位置,调用前需先调用{@link #resolveDimensions(DisplayMetrics)},
+     * 且各Paint的字体大小已设置完毕
+     */
+    void build(int width, int height, List<String> ageTextList, Paint ageTextPaint,
+               Paint zeroAgeTipsPaint, Paint percentTipsTextPaint, Paint remainingTextPaint, float ageTextOffset,
+               float zeroAgeDownCircleRadius, float zeroAgeDownCircleOffset, int tickMode) {
+        buildAgeText(width, ageTextList, ageTextPaint, ageTextOffset);
+        buildTickRing(width, tickMode);
+        buildZeroAgeDownDot(height, ageTextPaint, zeroAgeTipsPaint, ageTextOffset,
+                zeroAgeDownCircleRadius, zeroAgeDownCircleOffset);
+        mPointerLineEndY = -height / 2F - mPointerLineEndOffset + ageTextOffset;
+
+        LifeClockTextMetricsCache.Metrics tipsMetrics = LifeClockTextMetricsCache.obtainText(PERCENT_TIPS_STR,
+                percentTipsTextPaint.getTypeface(), percentTipsTextPaint.getTextSize(), mDensity);
+        mPercentTipsHeight = tipsMetrics.height(0);
+        mPercentTipsWidth = tipsMetrics.width(0);
+        remainingTextPaint.getFontMetrics(mFontMetrics);
+        mRemainingAscent = mFontMetrics.ascent;
+        mRemainingDescent = mFontMetrics.descent;
+        updatePercentBaselines();
+    }
+
+    private void buildAgeText(int width, List<String> ageTextList, Paint ageTextPaint,
+                              float ageTextOffset) {
+        int count = ageTextList.size();
+        if (mLabels.length != count) {
+            mLabels = new String[count];
+            mLabelX = new float[count];
+            mLabelBaselineY = new float[count];
+            mLabelWidth = new float[count];
+        }
+        mLabelCount = count;
+        LabelLayout labelLayout = mLabelLayout;
+        labelLayout.compute((count - 1) * DialGeometry.AGE_STEP, width / 2F - ageTextOffset);
+        ageTextPaint.getFontMetrics(mFontMetrics);
+        float offsetY = (mFontMetrics.top + mFontMetrics.bottom) / 2F;
+        for (int i = 0; i < count; i++) {
+            String ageText = ageTextList.get(i);
+            mLabels[i] = ageText;
+            mLabelWidth[i] = ageTextPaint.measureText(ageText);
+            mLabelX[i] = labelLayout.getCenterX(i) - mLabelWidth[i] / 2F;
+            mLabelBaselineY[i] = labelLayout.getCenterY(i) - offsetY;
+        }
+
+        // 编辑图标跟随最后一个年龄文本
+        int last = count - 1;
+        float x = mLabelX[last];
+        float y = mLabelBaselineY[last];
+        float textWidth = mLabelWidth[last];
+        float textHeight = mFontMetrics.bottom - mFontMetrics.top;
+        mEditIconHeight = Math.max(1, Math.round(textHeight / 3));
+        mEditIconLeft = x + textWidth;
+        mEditIconTop = y - textHeight / 3;
+        mHitRegions.set(HIT_EDIT, x, y + mFontMetrics.bottom - textHeight, x + textWidth, y + mFontMetrics.bottom);
+    }
+
+    /**
+     * 刻度外端贴近表盘外圆,密度根据表盘的实际像素大小决定
+     */
+    private void buildTickRing(int width, int tickMode) {
+        mTickRingVisible = tickMode != LifeClockStyle.TICK_MODE_NONE;
+        if (!mTickRingVisible) {
+            return;
+        }
+        int dialMaxAge = (mLabelCount - 1) * DialGeometry.AGE_STEP;
+        float outerRadius = width / 2F - mTickOuterOffset;
+        int minIntervalMonths = tickMode == LifeClockStyle.TICK_MODE_MONTHS ? 1 : TickRing.MONTHS_PER_YEAR;
+        int intervalMonths = TickRing.chooseIntervalMonths(dialMaxAge, minIntervalMonths, outerRadius, mTickMinSpacing);
+        mTickRing.compute(dialMaxAge, intervalMonths, outerRadius, mTickMinorLength, mTickMajorLength);
+    }
+
+    private void buildZeroAgeDownDot(int height, Paint ageTextPaint, Paint zeroAgeTipsPaint,
+                                     float ageTextOffset, float zeroAgeDownCircleRadius,
+                                     float zeroAgeDownCircleOffset) {
+        ageTextPaint.getTextBounds(mLabels[0], 0, 1, mTextBoundsRect);
+        float circleCenterX = 0;
+        float circleCenterY = -height / 2F + ageTextOffset +
+                (mTextBoundsRect.bottom - mTextBoundsRect.top) / 2F +
+                zeroAgeDownCircleRadius +
+                zeroAgeDownCircleOffset;
+        mZeroAgeDownCircleCenterY = circleCenterY;
+
+        mZeroAgeTipsRectF.set(circleCenterX - mZeroAgeTipsRectWidth / 2F,
+                circleCenterY - zeroAgeDownCircleRadius - mZeroAgeTipsRectHeight,
+                circleCenterX + mZeroAgeTipsRectWidth / 2F,
+                circleCenterY - zeroAgeDownCircleRadius);
+        zeroAgeTipsPaint.getFontMetrics(mFontMetrics);
+        float offset = (mFontMetrics.bottom + mFontMetrics.top) / 2F;
+        mZeroAgeTipsTextBaselineY = mZeroAgeTipsRectF.centerY() - offset;
+
+        mHitRegions.set(HIT_ZERO_CIRCLE, circleCenterX - mZeroAgeTipsRectWidth / 2F,
+                circleCenterY - zeroAgeDownCircleRadius - mZeroAgeTipsRectHeight,
+                circleCenterX + mZeroAgeTipsRectWidth / 2F,
+                circleCenterY + zeroAgeDownCircleRadius + mZeroAgeClickExtraBottom);
+    }
+
+    /**
+     * 设置百分比文本的尺寸,通常来自{@link LifeClockTextMetricsCache}
+     */
+    void setPercentMetrics(float width, float height) {
+        mPercentWidth = width;
+        mPercentHeight = height;
+        updatePercentBaselines();
+    }
+
+    /**
+     * 测量百分比文本,只用于超出缓存范围(0%~100%)的百分比
+     */
+    void measurePercent(String percentStr, Paint percentTextPaint) {
+        percentTextPaint.getTextBounds(percentStr, 0, percentStr.length(), mTextBoundsRect);
+        setPercentMetrics(percentTextPaint.measureText(percentStr), mTextBoundsRect.bottom - mTextBoundsRect.top);
+    }
+
+    private void updatePercentBaselines() {
+        mPercentBaselineYDown = mPercentHeight + mPercentStrMarginDot;
+        mPercentBaselineYUp = -mPercentStrMarginDot;
+        mPercentTipsBaselineYDown = mPercentHeight + mPercentStrMarginDot +
+                mPercentTipsStrMarginPercentStr + mPercentTipsHeight;
+        mPercentTipsBaselineYUp = -mPercentStrMarginDot - mPercentHeight - mPercentTipsStrMarginPercentStr;
+        mRemainingBaselineYDown = mPercentTipsBaselineYDown + mRemainingStrMarginPercentTips - mRemainingAscent;
+        mRemainingBaselineYUp = mPercentTipsBaselineYUp - mPercentTipsHeight -
+                mRemainingStrMarginPercentTips - mRemainingDescent;
+    }
+
+    private static float sp2px(DisplayMetrics metrics, float spValue) {
+        return TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP, spValue, metrics);
+    }
+
+    private static float dp2px(DisplayMetrics metrics, float dpValue) {
+        return TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, dpValue, metrics);
+    }
+}
@@ -0,0 +1,129 @@
+package com.hurryyu.lifeclockview;
+
+/**
+ * 一段时间内LifeClockView绘制情况的汇总,通过{@link LifeClockView.OnFrameMetricsListener}回调
+ * <p>
+ * 统计窗口从上一次回调(或开启统计)开始,到一次指针动画结束为止.
+ */
+public final class LifeClockFrameMetrics {
+    /**
+     * 未开启分配统计时{@link #getAnimationAllocationCount()}的返回值
+     */
+    public static final int ALLOCATION_COUNT_UNKNOWN = -1;
+
+    /**
+     * onDraw耗时直方图各个桶的上限(微秒,不包含),最后一个桶没有上限
+     */
+    private static final long[] DRAW_DURATION_BUCKET_UPPER_BOUNDS_MICROS = {
+            250, 500, 1000, 2000, 4000, 8000, 16000, Long.MAX_VALUE
+    };
+    static final int BUCKET_COUNT = DRAW_DURATION_BUCKET_UPPER_BOUNDS_MICROS.length;
+
+    private final int[] mDrawDurationHistogram;
+    private final int mDrawCount;
+    private final long mTotalDrawNanos;
+    private final long mMaxDrawNanos;
+    private final int mRedundantDrawCount;
+    private final int mAnimationFrameCount;
+    private final int mPointerLayerFrameCount;
+    private final boolean mAnimationCanceled;
+    private final int mAnimationAllocationCount;
+
+    LifeClockFrameMetrics(int[] drawDurationHistogram, int drawCount, long totalDrawNanos, long maxDrawNanos,
+                          int redundantDrawCount, int animationFrameCount, int pointerLayerFrameCount,
+                          boolean animationCanceled, int animationAllocationCount) {
+        mDrawDurationHistogram = drawDurationHistogram;
+        mDrawCount = drawCount;
+        mTotalDrawNanos = totalDrawNanos;
+        mMaxDrawNanos = maxDrawNanos;
+        mRedundantDrawCount = redundantDrawCount;
+        mAnimationFrameCount = animationFrameCount;
+        mPointerLayerFrameCount = pointerLayerFrameCount;
+        mAnimationCanceled = animationCanceled;
+        mAnimationAllocationCount = animationAllocationCount;
+    }
+
+    static int bucketIndex(long drawNanos) {
+        long micros = drawNanos / 1000;
+        int index = 0;
+        while (micros >= DRAW_DURATION_BUCKET_UPPER_BOUNDS_MICROS[index]) {
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * onDraw耗时直方图的桶数量
+     */
+    public int getBucketCount() {
+        return mDrawDurationHistogram.length;
+    }
+
+    /**
+     * 第index个桶的上限(微秒,不包含),最后一个桶返回Long.MAX_VALUE
+     */
+    public long getBucketUpperBoundMicros(int index) {
+        return DRAW_DURATION_BUCKET_UPPER_BOUNDS_MICROS[index];
+    }
+
+    /**
+     * onDraw耗时落在第index个桶中的次数
+     */
+    public int getBucketDrawCount(int index) {
+        return mDrawDurationHistogram[index];
+    }
+
+    /**
+     * onDraw的总次数
+     */
+    public int getDrawCount() {
+        return mDrawCount;
+    }
+
+    public long getTotalDrawNanos() {
+        return mTotalDrawNanos;
+    }
+
+    public long getMaxDrawNanos() {
+        return mMaxDrawNanos;
+    }
+
+    /**
+     * 与上一次绘制结果完全相同的onDraw次数,即没有必要的invalidate
+     */
+    public int getRedundantDrawCount() {
+        return mRedundantDrawCount;
+    }
+
+    /**
+     * 本次指针动画期间的帧数,包括执行了onDraw的帧与只更新指针层属性的帧
+     */
+    public int getAnimationFrameCount() {
+        return mAnimationFrameCount;
+    }
+
+    /**
+     * 本次指针动画期间只更新指针层RenderNode属性、没有执行onDraw的帧数(Android Q及以上的硬件加速绘制),
+     * 这些帧不计入onDraw耗时直方图
+     */
+    public int getPointerLayerFrameCount() {
+        return mPointerLayerFrameCount;
+    }
+
+    /**
+     * 本次指针动画是否被取消
+     */
+    public boolean isAnimationCanceled() {
+        return mAnimationCanceled;
+    }
+
+    /**
+     * 本次指针动画期间UI线程上的对象分配次数(包括其他View与业务代码的分配),
+     * 依赖{@link android.os.Debug#startAllocCounting()},在部分系统版本上可能始终为0.
+     * 只有通过{@link LifeClockView#setOnFrameMetricsListener(LifeClockView.OnFrameMetricsListener, boolean)}
+     * 开启后才会统计,否则返回{@link #ALLOCATION_COUNT_UNKNOWN}
+     */
+    public int getAnimationAllocationCount() {
+        return mAnimationAllocationCount;
+    }
+}
@@ -0,0 +1,50 @@
+package com.hurryyu.lifeclockview;
+
+import android.content.Context;
+import android.os.Build;
+import android.os.SystemClock;
+import android.os.VibrationEffect;
+import android.os.Vibrator;
+
+/**
+ * 所有LifeClockView共享的振动
+ * <p>
+ * Vibrator只获取一次;两次振动间隔小于{@link #MIN_INTERVAL_MILLIS}时忽略后一次,
+ * 避免同一时刻多个时钟(例如列表中批量设置年龄)连续振动.只能在UI线程中使用.
+ */
+final class LifeClockHaptics {
+    private static final long MIN_INTERVAL_MILLIS = 150;
+
+    private static Vibrator sVibrator;
+    private static boolean sResolved;
+    private static long sLastVibrateUptime = -MIN_INTERVAL_MILLIS;
+
+    private LifeClockHaptics() {
+    }
+
+    static void vibrate(Context context, long millisecond) {
+        long now = SystemClock.uptimeMillis();
+        if (now - sLastVibrateUptime < MIN_INTERVAL_MILLIS) {
+            return;
+        }
+        Vibrator vibrator = getVibrator(context);
+        if (vibrator == null) {
+            return;
+        }
+        sLastVibrateUptime = now;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            vibrator.vibrate(VibrationEffect.createOneShot(millisecond, VibrationEffect.DEFAULT_AMPLITUDE));
+        } else {
+            vibrator.vibrate(millisecond);
+        }
+    }
+
+    private static Vibrator getVibrator(Context context) {
+        if (!sResolved) {
+            Vibrator vibrator = (Vibrator) context.getApplicationContext().getSystemService(Context.VIBRATOR_SERVICE);
+            sVibrator = vibrator != null && vibrator.hasVibrator() ? vibrator : null;
+            sResolved = true;
+        }
+        return sVibrator;
+    }
+}
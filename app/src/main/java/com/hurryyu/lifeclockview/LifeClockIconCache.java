@@ -0,0 +1,109 @@
+package com.hurryyu.lifeclockview;
+
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.util.LruCache;
+import android.util.SparseArray;
+
+/**
+ * 编辑图标的共享缓存
+ * <p>
+ * 所有LifeClockView共享同一份按目标像素高度解码的编辑图标:先用inSampleSize降采样解码,
+ * 再缩放到精确尺寸,绘制时无需再通过Matrix缩放.
+ * 使用中的图标通过引用计数管理(与View的attach/detach对应),引用计数归零后
+ * 放入一个很小的LRU中,以便RecyclerView中被回收又重新attach的View无需再次解码.
+ */
+final class LifeClockIconCache {
+    private static final int IDLE_CACHE_SIZE = 4;
+
+    private static final SparseArray<Entry> IN_USE = new SparseArray<>();
+    private static final LruCache<Integer, Bitmap> IDLE = new LruCache<>(IDLE_CACHE_SIZE);
+
+    private static int sSourceWidth;
+    private static int sSourceHeight;
+
+    private LifeClockIconCache() {
+    }
+
+    /**
+     * 获取指定高度的编辑图标,使用完毕后必须调用{@link #release(int)}
+     *
+     * @param targetHeight 目标高度(px)
+     */
+    static synchronized Bitmap acquire(Resources resources, int targetHeight) {
+        targetHeight = Math.max(1, targetHeight);
+        Entry entry = IN_USE.get(targetHeight);
+        if (entry == null) {
+            Bitmap bitmap = IDLE.remove(targetHeight);
+            if (bitmap == null) {
+                bitmap = decode(resources, targetHeight);
+            }
+            entry = new Entry(bitmap);
+            IN_USE.put(targetHeight, entry);
+        }
+        entry.mRefCount++;
+        return entry.mBitmap;
+    }
+
+    /**
+     * 释放通过{@link #acquire(Resources, int)}获取的图标
+     */
+    static synchronized void release(int targetHeight) {
+        targetHeight = Math.max(1, targetHeight);
+        Entry entry = IN_USE.get(targetHeight);
+        if (entry == null) {
+            return;
+        }
+        if (--entry.mRefCount <= 0) {
+            IN_USE.remove(targetHeight);
+            IDLE.put(targetHeight, entry.mBitmap);
+        }
+    }
+
+    private static Bitmap decode(Resources resources, int targetHeight) {
+        if (sSourceHeight == 0) {
+            BitmapFactory.Options boundsOptions = new BitmapFactory.Options();
+            boundsOptions.inJustDecodeBounds = true;
+            // 与下面的解码保持一致,读取未经密度缩放的像素尺寸
+            boundsOptions.inScaled = false;
+            BitmapFactory.decodeResource(resources, R.drawable.ic_edit, boundsOptions);
+            sSourceWidth = boundsOptions.outWidth;
+            sSourceHeight = boundsOptions.outHeight;
+        }
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inSampleSize = calculateInSampleSize(sSourceHeight, targetHeight);
+        // 源图位于drawable-xxhdpi,关闭密度缩放,直接按像素尺寸计算
+        options.inScaled = false;
+        Bitmap sampled = BitmapFactory.decodeResource(resources, R.drawable.ic_edit, options);
+        if (sampled.getHeight() == targetHeight) {
+            return sampled;
+        }
+        int targetWidth = Math.max(1, Math.round(sSourceWidth * (float) targetHeight / sSourceHeight));
+        Bitmap scaled = Bitmap.createScaledBitmap(sampled, targetWidth, targetHeight, true);
+        if (scaled != sampled) {
+            sampled.recycle();
+        }
+        return scaled;
+    }
+
+    /**
+     * 计算不小于目标高度的最大2次幂采样率
+     */
+    static int calculateInSampleSize(int sourceHeight, int targetHeight) {
+        int inSampleSize = 1;
+        while (sourceHeight / (inSampleSize * 2) >= targetHeight) {
+            inSampleSize *= 2;
+        }
+        return inSampleSize;
+    }
+
+    private static final class Entry {
+        private final Bitmap mBitmap;
+        private int mRefCount;
+
+        Entry(Bitmap bitmap) {
+            mBitmap = bitmap;
+        }
+    }
+}
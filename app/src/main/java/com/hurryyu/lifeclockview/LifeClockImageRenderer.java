@@ -0,0 +1,185 @@
+package com.hurryyu.lifeclockview;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+
+import java.util.ArrayDeque;
+
+/**
+ * 不依赖View的生命时钟渲染器,用于生成分享图片等离屏场景
+ * <p>
+ * 与{@link LifeClockView#onDraw(Canvas)}使用同一套布局与绘制逻辑({@link LifeClockRenderer}),
+ * 指针直接绘制在最终位置.可以在任意线程(包括后台线程池)中并发调用,
+ * 批量导出时通过{@link LifeClockBitmapPool}复用Bitmap.
+ */
+public final class LifeClockImageRenderer {
+    /**
+     * 最多保留的空闲绘制器数量,通常与后台线程池的大小相当即可
+     */
+    private static final int MAX_IDLE_WORKERS = 4;
+
+    private final Resources mResources;
+    private final LifeClockBitmapPool mBitmapPool;
+    private final ArrayDeque<Worker> mIdleWorkers = new ArrayDeque<>();
+
+    /**
+     * @param bitmapPool {@link #render(int, int, int, int, LifeClockStyle)}使用的Bitmap池
+     */
+    public LifeClockImageRenderer(Context context, LifeClockBitmapPool bitmapPool) {
+        if (bitmapPool == null) {
+            throw new IllegalArgumentException("bitmapPool == null");
+        }
+        mResources = context.getApplicationContext().getResources();
+        mBitmapPool = bitmapPool;
+    }
+
+    public LifeClockBitmapPool getBitmapPool() {
+        return mBitmapPool;
+    }
+
+    /**
+     * 从Bitmap池中获取一个Bitmap并绘制,使用完毕后应通过{@link LifeClockBitmapPool#release(Bitmap)}归还
+     *
+     * @param width      宽度(px)
+     * @param height     高度(px)
+     * @param currentAge 当前年龄
+     * @param maxAge     最大年龄,会覆盖style中的最大年龄
+     * @param style      样式,所有尺寸均为px
+     * @throws IllegalArgumentException 尺寸不大于0、年龄为负数或样式不合法(例如最大年龄小于{@link LifeClockStyle#AGE_STEP}),
+     *                                  此时不会从Bitmap池中获取Bitmap
+     */
+    public Bitmap render(int width, int height, int currentAge, int maxAge, LifeClockStyle style) {
+        checkSize(width, height);
+        style = resolveStyle(currentAge, maxAge, style);
+        Bitmap bitmap = mBitmapPool.acquire(width, height);
+        renderInto(bitmap, currentAge, style);
+        return bitmap;
+    }
+
+    /**
+     * 清空调用方提供的Bitmap并绘制,表盘是Bitmap中居中的正方形,边长为宽高中的较小值
+     *
+     * @throws IllegalArgumentException 年龄为负数或样式不合法,此时Bitmap保持原样
+     */
+    public void render(Bitmap bitmap, int currentAge, int maxAge, LifeClockStyle style) {
+        renderInto(bitmap, currentAge, resolveStyle(currentAge, maxAge, style));
+    }
+
+    /**
+     * 绘制到调用方提供的Canvas中,表盘是(0, 0, width, height)区域中居中的正方形,不会清空Canvas
+     *
+     * @throws IllegalArgumentException 尺寸不大于0、年龄为负数或样式不合法
+     */
+    public void draw(Canvas canvas, int width, int height, int currentAge, int maxAge, LifeClockStyle style) {
+        checkSize(width, height);
+        style = resolveStyle(currentAge, maxAge, style);
+        Worker worker = obtainWorker(style);
+        try {
+            draw(worker, canvas, width, height, currentAge, style);
+        } finally {
+            recycleWorker(worker);
+        }
+    }
+
+    /**
+     * 释放所有空闲绘制器持有的共享资源(例如编辑图标)
+     */
+    public void release() {
+        synchronized (mIdleWorkers) {
+            for (Worker worker : mIdleWorkers) {
+                worker.mRenderer.releaseResources();
+            }
+            mIdleWorkers.clear();
+        }
+    }
+
+    private void renderInto(Bitmap bitmap, int currentAge, LifeClockStyle style) {
+        bitmap.eraseColor(Color.TRANSPARENT);
+        Worker worker = obtainWorker(style);
+        try {
+            worker.mCanvas.setBitmap(bitmap);
+            draw(worker, worker.mCanvas, bitmap.getWidth(), bitmap.getHeight(), currentAge, style);
+        } finally {
+            worker.mCanvas.setBitmap(null);
+            recycleWorker(worker);
+        }
+    }
+
+    /**
+     * @param style 已经过{@link #resolveStyle(int, int, LifeClockStyle)}处理的样式
+     */
+    private void draw(Worker worker, Canvas canvas, int width, int height, int currentAge, LifeClockStyle style) {
+        LifeClockRenderer renderer = worker.mRenderer;
+        renderer.setStyle(style);
+        // 表盘按正方形布局(与LifeClockView的测量结果一致),非正方形区域中绘制居中的正方形表盘
+        int side = Math.min(width, height);
+        renderer.setSize(side, side);
+        renderer.applyAge(currentAge);
+        renderer.setPointer(renderer.getPointerFinalAngle(), LifeClockRenderer.MAX_ALPHA);
+
+        int saveCount = canvas.save();
+        canvas.translate(width / 2F, height / 2F);
+        renderer.draw(canvas);
+        canvas.restoreToCount(saveCount);
+    }
+
+    private Worker obtainWorker(LifeClockStyle style) {
+        synchronized (mIdleWorkers) {
+            Worker worker = mIdleWorkers.pollFirst();
+            if (worker != null) {
+                return worker;
+            }
+        }
+        return new Worker(new LifeClockRenderer(mResources, style));
+    }
+
+    private void recycleWorker(Worker worker) {
+        synchronized (mIdleWorkers) {
+            if (mIdleWorkers.size() < MAX_IDLE_WORKERS) {
+                mIdleWorkers.addFirst(worker);
+                return;
+            }
+        }
+        worker.mRenderer.releaseResources();
+    }
+
+    /**
+     * 用maxAge覆盖样式中的最大年龄并校验,与LifeClockView一致:最大年龄小于{@link LifeClockStyle#AGE_STEP}时
+     * 抛出异常,而不是以0作除数算出NaN的指针角度
+     */
+    private static LifeClockStyle resolveStyle(int currentAge, int maxAge, LifeClockStyle style) {
+        if (currentAge < 0) {
+            throw new IllegalArgumentException("currentAge must be >= 0, was " + currentAge);
+        }
+        if (style == null) {
+            throw new IllegalArgumentException("style == null");
+        }
+        int clampedMaxAge = maxAge > LifeClockStyle.MAX_AGE ? LifeClockStyle.MAX_AGE : maxAge;
+        if (clampedMaxAge != style.getMaxAge()) {
+            style = style.buildUpon().setMaxAge(clampedMaxAge).build();
+        }
+        style.checkValid();
+        return style;
+    }
+
+    private static void checkSize(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("size must be > 0, was " + width + "x" + height);
+        }
+    }
+
+    /**
+     * 同一时刻只被一个线程使用的绘制器
+     */
+    private static final class Worker {
+        final LifeClockRenderer mRenderer;
+        final Canvas mCanvas = new Canvas();
+
+        Worker(LifeClockRenderer renderer) {
+            mRenderer = renderer;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.hurryyu.lifeclockview;
+
+import android.view.Choreographer;
+
+/**
+ * 根据出生时间戳与寿命实时计算一生已过的比例以及剩余时间
+ * <p>
+ * 由Choreographer驱动,每次只在剩余时间的下一个整秒边界附近(与vsync对齐)回调一次,
+ * 剩余时间文本格式化到复用的char[]中,整个过程不产生对象分配.
+ * 是否需要重绘由{@link Listener}根据指针位移与显示内容是否变化决定.
+ */
+final class LifeClockLiveProgress implements Choreographer.FrameCallback {
+    private static final long MILLIS_PER_SECOND = 1000L;
+    private static final long SECONDS_PER_DAY = 24 * 60 * 60;
+    private static final double MILLIS_PER_YEAR = 365.2425 * SECONDS_PER_DAY * MILLIS_PER_SECOND;
+
+    private static final char[] REMAINING_PREFIX = "剩余".toCharArray();
+    private static final char REMAINING_DAY_UNIT = '天';
+
+    interface Listener {
+        /**
+         * @param readoutChanged 剩余时间文本是否发生了变化
+         */
+        void onLiveProgressUpdated(boolean readoutChanged);
+    }
+
+    private final Listener mListener;
+    private long mBirthTimeMillis;
+    private long mLifeSpanMillis;
+    private boolean mEnabled;
+    private boolean mScheduled;
+
+    /**
+     * 一生已过的比例[0, 1]
+     */
+    float mRatio;
+    /**
+     * 当前的整数年龄
+     */
+    int mAgeYears;
+    /**
+     * 剩余时间文本,例如"剩余12345天 06:07:08"
+     */
+    final char[] mReadout = new char[40];
+    int mReadoutLength;
+    private long mLastRemainingSeconds = -1;
+
+    LifeClockLiveProgress(Listener listener) {
+        mListener = listener;
+    }
+
+    void setLifeSpan(long birthTimeMillis, long lifeSpanMillis) {
+        mBirthTimeMillis = birthTimeMillis;
+        mLifeSpanMillis = lifeSpanMillis;
+        mLastRemainingSeconds = -1;
+        mEnabled = true;
+    }
+
+    long getBirthTimeMillis() {
+        return mBirthTimeMillis;
+    }
+
+    long getLifeSpanMillis() {
+        return mLifeSpanMillis;
+    }
+
+    boolean isEnabled() {
+        return mEnabled;
+    }
+
+    /**
+     * 开始(或恢复)计时,需在主线程调用
+     */
+    void start() {
+        if (!mEnabled || mScheduled) {
+            return;
+        }
+        mScheduled = true;
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    /**
+     * 暂停计时,之后可通过{@link #start()}恢复
+     */
+    void pause() {
+        if (mScheduled) {
+            mScheduled = false;
+            Choreographer.getInstance().removeFrameCallback(this);
+        }
+    }
+
+    /**
+     * 停止计时并退出实时模式
+     */
+    void stop() {
+        pause();
+        mEnabled = false;
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (!mScheduled) {
+            return;
+        }
+        long remainingMillis = update(System.currentTimeMillis());
+        if (remainingMillis <= 0) {
+            // 已到达终点,之后不再变化
+            mScheduled = false;
+            return;
+        }
+        // 下一次在剩余时间的整秒边界之后的第一帧回调
+        long delay = remainingMillis % MILLIS_PER_SECOND;
+        Choreographer.getInstance().postFrameCallbackDelayed(this, delay == 0 ? MILLIS_PER_SECOND : delay);
+    }
+
+    /**
+     * 根据当前时间更新比例、年龄与剩余时间文本,并通知Listener
+     *
+     * @return 剩余的毫秒数
+     */
+    long update(long nowMillis) {
+        long elapsedMillis = Math.max(0, nowMillis - mBirthTimeMillis);
+        long remainingMillis = Math.max(0, mLifeSpanMillis - elapsedMillis);
+        mRatio = Math.min(1F, (float) ((double) elapsedMillis / mLifeSpanMillis));
+        mAgeYears = (int) (elapsedMillis / MILLIS_PER_YEAR);
+
+        // 向上取整,保证剩余时间显示为0时恰好到达终点
+        long remainingSeconds = (remainingMillis + MILLIS_PER_SECOND - 1) / MILLIS_PER_SECOND;
+        boolean readoutChanged = remainingSeconds != mLastRemainingSeconds;
+        if (readoutChanged) {
+            mLastRemainingSeconds = remainingSeconds;
+            mReadoutLength = formatRemaining(remainingSeconds, mReadout);
+        }
+        mListener.onLiveProgressUpdated(readoutChanged);
+        return remainingMillis;
+    }
+
+    /**
+     * 将剩余秒数格式化为"剩余N天 HH:MM:SS"写入buffer
+     *
+     * @return 写入的字符个数
+     */
+    static int formatRemaining(long remainingSeconds, char[] buffer) {
+        long days = remainingSeconds / SECONDS_PER_DAY;
+        int secondsOfDay = (int) (remainingSeconds % SECONDS_PER_DAY);
+        int index = 0;
+        for (char c : REMAINING_PREFIX) {
+            buffer[index++] = c;
+        }
+        index = writeLong(days, buffer, index);
+        buffer[index++] = REMAINING_DAY_UNIT;
+        buffer[index++] = ' ';
+        index = writeTwoDigits(secondsOfDay / 3600, buffer, index);
+        buffer[index++] = ':';
+        index = writeTwoDigits(secondsOfDay / 60 % 60, buffer, index);
+        buffer[index++] = ':';
+        index = writeTwoDigits(secondsOfDay % 60, buffer, index);
+        return index;
+    }
+
+    private static int writeLong(long value, char[] buffer, int index) {
+        int digits = 1;
+        for (long v = value / 10; v > 0; v /= 10) {
+            digits++;
+        }
+        int end = index + digits;
+        for (int i = end - 1; i >= index; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return end;
+    }
+
+    private static int writeTwoDigits(int value, char[] buffer, int index) {
+        buffer[index++] = (char) ('0' + value / 10);
+        buffer[index++] = (char) ('0' + value % 10);
+        return index;
+    }
+}
@@ -0,0 +1,129 @@
+package com.hurryyu.lifeclockview;
+
+import android.os.Debug;
+
+/**
+ * LifeClockView的绘制统计
+ * <p>
+ * 只有设置了{@link LifeClockView.OnFrameMetricsListener}时才会创建,未开启时View中只有一次null判断.
+ * 记录过程中不分配对象,只在回调时创建一份{@link LifeClockFrameMetrics}.
+ * 只能在UI线程中使用.
+ */
+final class LifeClockMetricsRecorder {
+    /**
+     * Debug.startAllocCounting是全局开关,多个View同时处于动画中时按引用计数开关
+     */
+    private static int sAllocCountingUsers;
+
+    private final LifeClockView.OnFrameMetricsListener mListener;
+    /**
+     * 是否统计动画期间的分配次数,由调用方显式开启
+     */
+    private final boolean mCountAllocations;
+
+    private final int[] mHistogram = new int[LifeClockFrameMetrics.BUCKET_COUNT];
+    private int mDrawCount;
+    private long mTotalDrawNanos;
+    private long mMaxDrawNanos;
+    private int mRedundantDrawCount;
+    private boolean mHasDrawn;
+    private int mLastContentVersion;
+
+    private boolean mAnimating;
+    private int mAnimationFrameCount;
+    private int mPointerLayerFrameCount;
+    private int mAllocCountAtStart;
+
+    LifeClockMetricsRecorder(LifeClockView.OnFrameMetricsListener listener, boolean countAllocations) {
+        mListener = listener;
+        mCountAllocations = countAllocations;
+    }
+
+    void onDraw(long drawNanos, int contentVersion) {
+        mHistogram[LifeClockFrameMetrics.bucketIndex(drawNanos)]++;
+        mDrawCount++;
+        mTotalDrawNanos += drawNanos;
+        if (drawNanos > mMaxDrawNanos) {
+            mMaxDrawNanos = drawNanos;
+        }
+        if (mHasDrawn && contentVersion == mLastContentVersion) {
+            mRedundantDrawCount++;
+        }
+        mHasDrawn = true;
+        mLastContentVersion = contentVersion;
+        if (mAnimating) {
+            mAnimationFrameCount++;
+        }
+    }
+
+    /**
+     * 只更新了指针层RenderNode属性、没有执行onDraw的一帧
+     */
+    void onPointerLayerFrame() {
+        if (mAnimating) {
+            mAnimationFrameCount++;
+            mPointerLayerFrameCount++;
+        }
+    }
+
+    void onAnimationStart() {
+        if (mAnimating) {
+            return;
+        }
+        mAnimating = true;
+        mAnimationFrameCount = 0;
+        mPointerLayerFrameCount = 0;
+        if (mCountAllocations) {
+            if (sAllocCountingUsers++ == 0) {
+                Debug.startAllocCounting();
+            }
+            mAllocCountAtStart = Debug.getThreadAllocCount();
+        }
+    }
+
+    /**
+     * 指针动画结束时汇总并回调
+     */
+    void onAnimationEnd(boolean canceled) {
+        if (!mAnimating) {
+            return;
+        }
+        int allocationCount = mCountAllocations
+                ? Debug.getThreadAllocCount() - mAllocCountAtStart
+                : LifeClockFrameMetrics.ALLOCATION_COUNT_UNKNOWN;
+        stopAnimation();
+        LifeClockFrameMetrics metrics = new LifeClockFrameMetrics(mHistogram.clone(), mDrawCount,
+                mTotalDrawNanos, mMaxDrawNanos, mRedundantDrawCount, mAnimationFrameCount, mPointerLayerFrameCount,
+                canceled, allocationCount);
+        reset();
+        mListener.onFrameMetrics(metrics);
+    }
+
+    /**
+     * 停止统计,不再回调
+     */
+    void release() {
+        if (mAnimating) {
+            stopAnimation();
+        }
+    }
+
+    private void stopAnimation() {
+        mAnimating = false;
+        if (mCountAllocations && --sAllocCountingUsers == 0) {
+            Debug.stopAllocCounting();
+        }
+    }
+
+    private void reset() {
+        for (int i = 0; i < mHistogram.length; i++) {
+            mHistogram[i] = 0;
+        }
+        mDrawCount = 0;
+        mTotalDrawNanos = 0;
+        mMaxDrawNanos = 0;
+        mRedundantDrawCount = 0;
+        mAnimationFrameCount = 0;
+        mPointerLayerFrameCount = 0;
+    }
+}
@@ -0,0 +1,169 @@
+package com.hurryyu.lifeclockview;
+
+import android.animation.ValueAnimator;
+import android.os.Build;
+import android.view.View;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 指针动画
+ * <p>
+ * 由进程内共享的{@link LifeClockAnimationClock}驱动,不再为每个View创建ValueAnimator:
+ * 动画进行中收到新的目标角度时,从当前角度与透明度平滑地转向新目标;
+ * 同一帧内的多次目标更新会被合并,只在下一帧应用最后一次.
+ * View detach后自动从时钟中注销,重新attach时如果动画尚未结束则继续.
+ */
+final class LifeClockPointerAnimator implements LifeClockAnimationClock.Client, View.OnAttachStateChangeListener {
+    private static final int MAX_ALPHA = 255;
+
+    interface Target {
+        void onPointerFrame(float angle, int alpha);
+    }
+
+    private final View mView;
+    private final Target mTarget;
+    private final LifeClockAnimationClock mClock;
+    private LifeClockView.OnPointerAnimationListener mListener;
+
+    private float mStartAngle;
+    private float mEndAngle;
+    private int mStartAlpha;
+    private float mCurrentAngle;
+    private int mCurrentAlpha;
+    private long mStartTimeNanos;
+    private long mDurationNanos;
+    private boolean mRunning;
+    private boolean mRegistered;
+
+    private float mPendingFromAngle;
+    private float mPendingToAngle;
+    private long mPendingDuration;
+    private boolean mRetargetPending;
+
+    LifeClockPointerAnimator(View view, Target target) {
+        mView = view;
+        mTarget = target;
+        mClock = LifeClockAnimationClock.get();
+        view.addOnAttachStateChangeListener(this);
+    }
+
+    void setListener(LifeClockView.OnPointerAnimationListener listener) {
+        mListener = listener;
+    }
+
+    /**
+     * 动画到目标角度,同一帧内多次调用只有最后一次生效
+     *
+     * @param fromAngle 当前没有动画进行时的起始角度,动画进行中时从当前角度开始
+     */
+    void animateTo(float fromAngle, float toAngle, long duration) {
+        mPendingFromAngle = fromAngle;
+        mPendingToAngle = toAngle;
+        mPendingDuration = duration;
+        mRetargetPending = true;
+        ensureRegistered();
+    }
+
+    /**
+     * 是否有动画正在进行或即将开始
+     */
+    boolean isActive() {
+        return mRetargetPending || mRunning;
+    }
+
+    /**
+     * 取消动画,指针停留在当前位置,由调用方决定如何处理最终状态
+     */
+    void cancel() {
+        mRetargetPending = false;
+        if (mRegistered) {
+            mRegistered = false;
+            mClock.unregister(this);
+        }
+        if (mRunning) {
+            mRunning = false;
+            dispatchEnd(true);
+        }
+    }
+
+    private void ensureRegistered() {
+        if (!mRegistered && mView.isAttachedToWindow()) {
+            mRegistered = true;
+            mClock.register(this);
+        }
+    }
+
+    @Override
+    public void onViewAttachedToWindow(View v) {
+        if (isActive()) {
+            ensureRegistered();
+        }
+    }
+
+    @Override
+    public void onViewDetachedFromWindow(View v) {
+        if (mRegistered) {
+            mRegistered = false;
+            mClock.unregister(this);
+        }
+    }
+
+    @Override
+    public boolean onAnimationFrame(long frameTimeNanos) {
+        if (mRetargetPending) {
+            mRetargetPending = false;
+            retarget(frameTimeNanos);
+        }
+        if (mRunning) {
+            float eased = mClock.easedFraction(frameTimeNanos, mStartTimeNanos, mDurationNanos);
+            // 透明度随时间线性变化
+            float timeFraction = LifeClockAnimationClock.linearFraction(frameTimeNanos, mStartTimeNanos, mDurationNanos);
+            mCurrentAngle = mStartAngle + (mEndAngle - mStartAngle) * eased;
+            mCurrentAlpha = (int) (mStartAlpha + (MAX_ALPHA - mStartAlpha) * timeFraction);
+            mTarget.onPointerFrame(mCurrentAngle, mCurrentAlpha);
+            if (timeFraction >= 1F) {
+                mRunning = false;
+                dispatchEnd(false);
+            }
+        }
+        if (!mRegistered) {
+            // 回调中被取消或View已detach,已经从时钟中注销
+            return false;
+        }
+        // 结束回调中可能又开始了新的动画
+        mRegistered = isActive();
+        return mRegistered;
+    }
+
+    private void retarget(long frameTimeNanos) {
+        boolean running = mRunning;
+        if (running) {
+            mStartAngle = mCurrentAngle;
+            mStartAlpha = mCurrentAlpha;
+        } else {
+            mStartAngle = mPendingFromAngle;
+            mStartAlpha = 0;
+        }
+        mEndAngle = mPendingToAngle;
+        mStartTimeNanos = frameTimeNanos;
+        mDurationNanos = animatorsEnabled() ? TimeUnit.MILLISECONDS.toNanos(mPendingDuration) : 0;
+        mRunning = true;
+        if (!running && mListener != null) {
+            mListener.onPointerAnimationStart();
+        }
+    }
+
+    /**
+     * 系统关闭动画(开发者选项或省电模式)时直接跳到终点
+     */
+    private static boolean animatorsEnabled() {
+        return Build.VERSION.SDK_INT < Build.VERSION_CODES.O || ValueAnimator.areAnimatorsEnabled();
+    }
+
+    private void dispatchEnd(boolean canceled) {
+        if (mListener != null) {
+            mListener.onPointerAnimationEnd(canceled);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.hurryyu.lifeclockview;
+
+import android.graphics.Canvas;
+import android.graphics.RenderNode;
+
+/**
+ * 指针层(Android Q及以上的硬件加速绘制)
+ * <p>
+ * 指针与中心圆点、百分比文本分别录制到两个RenderNode中,录制时指针角度为0、透明度为255.
+ * 指针动画的每一帧只修改RenderNode的旋转角度与透明度,由RenderThread完成变换,
+ * View自身的显示列表保持不变,不需要重新执行onDraw.
+ * 只有样式、尺寸或文本内容变化时才重新录制,调用方负责在这些情况下调用invalidate方法.
+ * 该类引用了Android Q才有的API,调用方须确认系统版本后才能加载它.
+ */
+final class LifeClockPointerLayer {
+    private final LifeClockStaticLayer.Painter mPointerPainter;
+    private final LifeClockStaticLayer.Painter mPercentPainter;
+    private RenderNode mPointerNode;
+    private RenderNode mPercentNode;
+    private boolean mPointerValid;
+    private boolean mPercentValid;
+    private int mWidth;
+    private int mHeight;
+
+    /**
+     * @param pointerPainter 绘制角度为0的指针与中心圆点,坐标系以View中心为原点
+     * @param percentPainter 绘制百分比、说明与剩余时间文本,坐标系以View中心为原点
+     */
+    LifeClockPointerLayer(LifeClockStaticLayer.Painter pointerPainter, LifeClockStaticLayer.Painter percentPainter) {
+        mPointerPainter = pointerPainter;
+        mPercentPainter = percentPainter;
+    }
+
+    /**
+     * 指针样式或表盘布局变化时调用
+     */
+    void invalidatePointer() {
+        mPointerValid = false;
+    }
+
+    /**
+     * 百分比文本内容、位置或样式变化时调用
+     */
+    void invalidatePercent() {
+        mPercentValid = false;
+    }
+
+    /**
+     * 更新旋转角度与透明度,不需要重新录制
+     */
+    void setFrame(float angle, int alpha) {
+        if (mPointerNode == null) {
+            return;
+        }
+        float nodeAlpha = alpha / (float) LifeClockRenderer.MAX_ALPHA;
+        mPointerNode.setRotationZ(angle);
+        mPointerNode.setAlpha(nodeAlpha);
+        mPercentNode.setAlpha(nodeAlpha);
+    }
+
+    /**
+     * canvas当前坐标系须以View中心为原点
+     */
+    void draw(Canvas canvas, int width, int height, float angle, int alpha) {
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        if (mPointerNode == null) {
+            mPointerNode = new RenderNode("LifeClockPointer");
+            // 节点透明度逐个应用到绘制操作上,与软件绘制时为每个Paint设置透明度的效果相同
+            mPointerNode.setHasOverlappingRendering(false);
+            mPercentNode = new RenderNode("LifeClockPercent");
+            mPercentNode.setHasOverlappingRendering(false);
+        }
+        if (width != mWidth || height != mHeight) {
+            mWidth = width;
+            mHeight = height;
+            mPointerNode.setPosition(0, 0, width, height);
+            mPointerNode.setPivotX(width / 2F);
+            mPointerNode.setPivotY(height / 2F);
+            mPercentNode.setPosition(0, 0, width, height);
+            mPointerValid = false;
+            mPercentValid = false;
+        }
+        if (!mPointerValid) {
+            record(mPointerNode, mPointerPainter);
+            mPointerValid = true;
+        }
+        if (!mPercentValid) {
+            record(mPercentNode, mPercentPainter);
+            mPercentValid = true;
+        }
+        setFrame(angle, alpha);
+        canvas.save();
+        canvas.translate(-width / 2F, -height / 2F);
+        canvas.drawRenderNode(mPointerNode);
+        canvas.drawRenderNode(mPercentNode);
+        canvas.restore();
+    }
+
+    private void record(RenderNode node, LifeClockStaticLayer.Painter painter) {
+        Canvas recordingCanvas = node.beginRecording(mWidth, mHeight);
+        recordingCanvas.translate(mWidth / 2F, mHeight / 2F);
+        painter.paint(recordingCanvas);
+        node.endRecording();
+    }
+
+    /**
+     * 释放显示列表,下一次绘制时重新录制
+     */
+    void release() {
+        if (mPointerNode != null) {
+            mPointerNode.discardDisplayList();
+            mPercentNode.discardDisplayList();
+        }
+        mPointerValid = false;
+        mPercentValid = false;
+    }
+}
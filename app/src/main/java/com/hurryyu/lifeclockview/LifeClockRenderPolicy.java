@@ -0,0 +1,57 @@
+package com.hurryyu.lifeclockview;
+
+import android.content.Context;
+import android.os.Build;
+import android.os.PowerManager;
+
+/**
+ * 根据View的可见性与系统省电模式决定是否播放动画、是否运行实时模式
+ * <p>
+ * 不可见(detach、自身或父View隐藏、窗口不可见)时不运行任何动画与实时计时;
+ * 省电模式下指针不再播放扫过动画,直接显示最终状态.
+ * 省电模式只在需要开始动画时查询一次,不会在每一帧中查询.
+ */
+final class LifeClockRenderPolicy {
+    private final PowerManager mPowerManager;
+    private boolean mAttached;
+    private boolean mVisible = true;
+
+    LifeClockRenderPolicy(Context context) {
+        mPowerManager = (PowerManager) context.getApplicationContext().getSystemService(Context.POWER_SERVICE);
+    }
+
+    void setAttached(boolean attached) {
+        mAttached = attached;
+    }
+
+    /**
+     * @return 可见性是否发生了变化
+     */
+    boolean setVisible(boolean visible) {
+        if (mVisible == visible) {
+            return false;
+        }
+        mVisible = visible;
+        return true;
+    }
+
+    /**
+     * 是否在屏幕上可见,不可见时不需要任何逐帧更新
+     */
+    boolean isActive() {
+        return mAttached && mVisible;
+    }
+
+    /**
+     * 是否播放指针动画,否则直接显示最终状态.
+     * 尚未attach时允许,动画会等到attach后才开始(例如在Activity.onCreate中设置年龄)
+     */
+    boolean canAnimate() {
+        return mVisible && !isPowerSaveMode();
+    }
+
+    private boolean isPowerSaveMode() {
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP &&
+                mPowerManager != null && mPowerManager.isPowerSaveMode();
+    }
+}
@@ -0,0 +1,152 @@
+package com.hurryyu.lifeclockview;
+
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Process;
+import android.view.Choreographer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 所有{@link LifeClockSurfaceView}共享的渲染线程
+ * <p>
+ * 线程内持有自己的Choreographer,按vsync节奏依次让每个已注册的{@link Client}绘制一帧,
+ * 没有Client需要下一帧时不再请求vsync.
+ * Client列表只在渲染线程中访问;UI线程只通过{@link #requestFrame()}唤醒渲染线程,不持有任何锁.
+ */
+final class LifeClockRenderThread implements Choreographer.FrameCallback {
+    private static final String THREAD_NAME = "LifeClockRender";
+
+    interface Client {
+        /**
+         * 在渲染线程中绘制一帧
+         *
+         * @return 是否还需要下一帧(例如动画尚未结束)
+         */
+        boolean onRenderFrame(long frameTimeNanos);
+    }
+
+    private final Handler mHandler;
+    /**
+     * 以下字段只在渲染线程中访问
+     */
+    private final List<Client> mClients = new ArrayList<>();
+    private Choreographer mChoreographer;
+    private boolean mFrameScheduled;
+
+    private final AtomicBoolean mWakePending = new AtomicBoolean();
+    private final Runnable mWakeRunnable = new Runnable() {
+        @Override
+        public void run() {
+            mWakePending.set(false);
+            scheduleFrame();
+        }
+    };
+
+    private LifeClockRenderThread() {
+        HandlerThread thread = new HandlerThread(THREAD_NAME, Process.THREAD_PRIORITY_DISPLAY);
+        thread.start();
+        mHandler = new Handler(thread.getLooper());
+        mHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                // Choreographer必须在所属Looper的线程中获取
+                mChoreographer = Choreographer.getInstance();
+            }
+        });
+    }
+
+    static LifeClockRenderThread get() {
+        return InstanceHolder.INSTANCE;
+    }
+
+    void register(final Client client) {
+        mHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                if (!mClients.contains(client)) {
+                    mClients.add(client);
+                }
+                scheduleFrame();
+            }
+        });
+    }
+
+    /**
+     * @param onRemoved 从列表中移除后在渲染线程中执行,可以为null
+     */
+    void unregister(final Client client, final Runnable onRemoved) {
+        mHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                mClients.remove(client);
+                if (onRemoved != null) {
+                    onRemoved.run();
+                }
+            }
+        });
+    }
+
+    /**
+     * 请求在下一个vsync绘制,可在任意线程调用,同一帧内的多次请求会被合并
+     */
+    void requestFrame() {
+        if (mWakePending.compareAndSet(false, true)) {
+            mHandler.post(mWakeRunnable);
+        }
+    }
+
+    /**
+     * 在渲染线程中执行task并等待其完成,只用于Surface销毁这类必须同步的生命周期回调
+     *
+     * @return task是否在超时前执行完毕
+     */
+    boolean runAndWait(final Runnable task, long timeoutMillis) {
+        final CountDownLatch latch = new CountDownLatch(1);
+        mHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    task.run();
+                } finally {
+                    latch.countDown();
+                }
+            }
+        });
+        try {
+            return latch.await(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void scheduleFrame() {
+        if (!mFrameScheduled && !mClients.isEmpty()) {
+            mFrameScheduled = true;
+            mChoreographer.postFrameCallback(this);
+        }
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        mFrameScheduled = false;
+        boolean needNextFrame = false;
+        for (int i = 0; i < mClients.size(); i++) {
+            if (mClients.get(i).onRenderFrame(frameTimeNanos)) {
+                needNextFrame = true;
+            }
+        }
+        if (needNextFrame) {
+            scheduleFrame();
+        }
+    }
+
+    private static final class InstanceHolder {
+        private static final LifeClockRenderThread INSTANCE = new LifeClockRenderThread();
+    }
+}
@@ -0,0 +1,724 @@
+package com.hurryyu.lifeclockview;
+
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.RectF;
+import android.graphics.Region;
+import android.graphics.Typeface;
+import android.os.Build;
+import android.util.DisplayMetrics;
+
+import com.hurryyu.lifeclockview.core.DialGeometry;
+import com.hurryyu.lifeclockview.core.TickRing;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 生命时钟的绘制逻辑
+ * <p>
+ * 持有Paint、表盘布局、编辑图标与静态层缓存,以及当前帧需要的状态(年龄、指针角度、透明度、百分比等),
+ * 由{@link LifeClockView}与{@link LifeClockSurfaceView}共用.
+ * 本类不是线程安全的,同一实例只能在一个线程中使用.
+ * {@link #draw(Canvas)}要求canvas的坐标系以表盘中心为原点.
+ * 年龄文本与刻度的颜色跟随指针角度变化,而不是直接取决于当前年龄,指针动画过程中文本在指针扫过时才变为已过去的颜色.
+ * 硬件加速(Android Q及以上)时指针与百分比文本绘制在{@link LifeClockPointerLayer}中,
+ * 指针动画通过{@link #setPointerFrame(float, int)}更新,只有年龄文本或刻度的颜色需要变化时才需要重新绘制.
+ */
+final class LifeClockRenderer {
+    private static final int DEFAULT_ZERO_AGE_TIPS_TEXT_COLOR = Color.WHITE;
+    private static final int PERCENT_STR_COLOR = Color.parseColor("#333333");
+    private static final int PERCENT_TIPS_STR_COLOR = Color.parseColor("#C5C5C5");
+    static final int MAX_ALPHA = 255;
+
+    private final Resources mResources;
+    private LifeClockStyle mStyle;
+    private final List<String> mAgeTextList = new ArrayList<>();
+    private final LifeClockDialLayout mDialLayout = new LifeClockDialLayout();
+    /**
+     * 表盘布局是否需要重新计算(尺寸、屏幕密度或样式变化后置为true)
+     */
+    private boolean mDialLayoutDirty = true;
+    private float mLayoutDensity;
+    private float mLayoutScaledDensity;
+    private int mWidth;
+    private int mHeight;
+
+    /**
+     * 共享的编辑图标,见{@link LifeClockIconCache}
+     */
+    private Bitmap mEditBitmap;
+    private int mEditBitmapHeight;
+
+    /**
+     * 是否将表盘静态部分缓存为离屏图层
+     */
+    private boolean mStaticLayerCacheEnabled;
+    /**
+     * 年龄文本全部为已过去颜色/全部为未到达颜色的两份静态层,
+     * 绘制时以指针扫过的扇形为裁剪区域拼合,年龄变化与指针动画都不需要重新录制
+     */
+    private LifeClockStaticLayer mPastLayer;
+    private LifeClockStaticLayer mFutureLayer;
+    /**
+     * 指针已扫过的年龄文本所在的扇形,只在扫过的文本数量变化时重建
+     */
+    private final Path mLabelClipPath = new Path();
+    private final RectF mLabelClipOval = new RectF();
+    private int mLabelClipCount = -1;
+
+    /**
+     * 指针与百分比文本的RenderNode,只在硬件加速时使用
+     */
+    private LifeClockPointerLayer mPointerLayer;
+    /**
+     * 上一次绘制是否使用了指针层,以及当时已扫过的年龄文本与刻度数量
+     */
+    private boolean mPointerLayerDrawn;
+    private int mDrawnPastLabelCount;
+    private int mDrawnPastTickCount;
+
+    /**
+     * 当前实际年龄
+     */
+    private int mCurrentAge;
+    private boolean mShowZeroAgeTips;
+    /**
+     * 一生已过的百分比
+     */
+    private String mPercentStr;
+    private int mPercent;
+    private LifeClockTextMetricsCache.Metrics mPercentMetrics;
+    /**
+     * 指针角度(此值会变动[属性动画]),最终角度必须>0才会绘制指针
+     */
+    private float mPointerLineAngle;
+    /**
+     * 最终指针角度
+     */
+    private float mPointerLineAngleFinal;
+    private int mPointerLineAndPercentAlpha;
+    /**
+     * 剩余时间文本(实时模式),为null时不绘制
+     */
+    private char[] mReadout;
+    private int mReadoutLength;
+    /**
+     * 绘制结果相关的状态每次变化时加1,用于判断两次绘制之间输出是否有变化
+     */
+    private int mContentVersion;
+
+    private final Paint mAgeTextPaint;
+    private final Paint mZeroAgeDownCirclePaint;
+    private final Paint mCenterCirclePaint;
+    private final Paint mPointerLinePaint;
+    private final Paint mPercentTextPaint;
+    private final Paint mPercentTipsTextPaint;
+    private final Paint mRemainingTextPaint;
+    private final Paint mZeroAgeTipsPaint;
+    private final Paint mZeroAgeTipsTextPaint;
+    private final Paint mTickPaint;
+
+    LifeClockRenderer(Resources resources, LifeClockStyle style) {
+        mResources = resources;
+
+        mAgeTextPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        mAgeTextPaint.setTypeface(Typeface.DEFAULT_BOLD);
+
+        mZeroAgeDownCirclePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        mZeroAgeDownCirclePaint.setStyle(Paint.Style.FILL_AND_STROKE);
+
+        mCenterCirclePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        mCenterCirclePaint.setStyle(Paint.Style.FILL_AND_STROKE);
+
+        mPointerLinePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        mPointerLinePaint.setStyle(Paint.Style.FILL_AND_STROKE);
+        mPointerLinePaint.setStrokeCap(Paint.Cap.ROUND);
+
+        mPercentTextPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        mPercentTextPaint.setColor(PERCENT_STR_COLOR);
+        mPercentTextPaint.setTypeface(Typeface.DEFAULT_BOLD);
+
+        mPercentTipsTextPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        mPercentTipsTextPaint.setColor(PERCENT_TIPS_STR_COLOR);
+        mPercentTipsTextPaint.setTypeface(Typeface.DEFAULT);
+
+        mRemainingTextPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        mRemainingTextPaint.setColor(PERCENT_TIPS_STR_COLOR);
+        mRemainingTextPaint.setTextAlign(Paint.Align.CENTER);
+
+        mZeroAgeTipsPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        mZeroAgeTipsPaint.setStyle(Paint.Style.FILL_AND_STROKE);
+
+        mZeroAgeTipsTextPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        mZeroAgeTipsTextPaint.setStyle(Paint.Style.FILL);
+        mZeroAgeTipsTextPaint.setColor(DEFAULT_ZERO_AGE_TIPS_TEXT_COLOR);
+        mZeroAgeTipsTextPaint.setTextAlign(Paint.Align.CENTER);
+
+        mTickPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        mTickPaint.setStyle(Paint.Style.STROKE);
+
+        setStyle(style);
+        resolveDimensions(resources.getDisplayMetrics());
+    }
+
+    // ---------------------------------------------------------------- 样式与尺寸
+
+    LifeClockStyle getStyle() {
+        return mStyle;
+    }
+
+    /**
+     * 应用新的样式,只有影响布局的属性变化时才重新布局
+     *
+     * @return 样式是否有变化
+     */
+    boolean setStyle(LifeClockStyle style) {
+        LifeClockStyle old = mStyle;
+        if (old == style || style.equals(old)) {
+            return false;
+        }
+        mStyle = style;
+        // 只更新发生变化的Paint属性
+        if (old == null || old.getAgeTextSize() != style.getAgeTextSize()) {
+            mAgeTextPaint.setTextSize(style.getAgeTextSize());
+        }
+        if (old == null || old.getZeroAgeDownCircleColor() != style.getZeroAgeDownCircleColor()) {
+            mZeroAgeDownCirclePaint.setColor(style.getZeroAgeDownCircleColor());
+        }
+        if (old == null || old.getCenterCircleColor() != style.getCenterCircleColor()) {
+            mCenterCirclePaint.setColor(style.getCenterCircleColor());
+        }
+        if (old == null || old.getPointerLineWidth() != style.getPointerLineWidth()) {
+            mPointerLinePaint.setStrokeWidth(style.getPointerLineWidth());
+        }
+        if (old == null || old.getPointerLineColor() != style.getPointerLineColor()) {
+            mPointerLinePaint.setColor(style.getPointerLineColor());
+        }
+        if (old == null || old.getZeroAgeTipsRectColor() != style.getZeroAgeTipsRectColor()) {
+            mZeroAgeTipsPaint.setColor(style.getZeroAgeTipsRectColor());
+        }
+
+        if (old == null || old.getMaxAge() != style.getMaxAge()) {
+            generateAgeText();
+            mDialLayoutDirty = true;
+        }
+        if (old == null ||
+                old.getAgeTextSize() != style.getAgeTextSize() ||
+                old.getAgeTextOffset() != style.getAgeTextOffset() ||
+                old.getZeroAgeDownCircleRadius() != style.getZeroAgeDownCircleRadius() ||
+                old.getZeroAgeDownCircleOffset() != style.getZeroAgeDownCircleOffset() ||
+                old.getTickMode() != style.getTickMode()) {
+            mDialLayoutDirty = true;
+        }
+        invalidateStaticLayer();
+        invalidatePointerLayer();
+        mContentVersion++;
+        return true;
+    }
+
+    private void generateAgeText() {
+        mAgeTextList.clear();
+        for (int i = 0; i <= mStyle.getMaxAge(); i += LifeClockStyle.AGE_STEP) {
+            mAgeTextList.add(String.valueOf(i));
+        }
+    }
+
+    /**
+     * 将表盘中的dp/sp常量换算为px并应用到Paint上
+     */
+    private void resolveDimensions(DisplayMetrics metrics) {
+        mLayoutDensity = metrics.density;
+        mLayoutScaledDensity = metrics.scaledDensity;
+        mDialLayout.resolveDimensions(metrics);
+        mPercentTextPaint.setTextSize(mDialLayout.mPercentTextSize);
+        mPercentTipsTextPaint.setTextSize(mDialLayout.mPercentTipsTextSize);
+        mRemainingTextPaint.setTextSize(mDialLayout.mRemainingTextSize);
+        mZeroAgeTipsTextPaint.setTextSize(mDialLayout.mZeroAgeTipsTextSize);
+        mTickPaint.setStrokeWidth(mDialLayout.mTickStrokeWidth);
+        mPercentMetrics = LifeClockTextMetricsCache.obtainPercent(mPercentTextPaint.getTypeface(),
+                mPercentTextPaint.getTextSize(), metrics.density);
+        if (mPercentStr != null) {
+            setPercent(mPercent);
+        }
+        invalidatePointerLayer();
+        mDialLayoutDirty = true;
+    }
+
+    /**
+     * 屏幕密度或字体缩放变化时调用
+     *
+     * @return 是否需要重绘
+     */
+    boolean onDisplayMetricsChanged(DisplayMetrics metrics) {
+        if (metrics.density == mLayoutDensity && metrics.scaledDensity == mLayoutScaledDensity) {
+            return false;
+        }
+        resolveDimensions(metrics);
+        mContentVersion++;
+        return true;
+    }
+
+    void setSize(int width, int height) {
+        if (width == mWidth && height == mHeight) {
+            return;
+        }
+        mWidth = width;
+        mHeight = height;
+        mDialLayoutDirty = true;
+        mContentVersion++;
+        ensureDialLayout();
+    }
+
+    int getWidth() {
+        return mWidth;
+    }
+
+    int getHeight() {
+        return mHeight;
+    }
+
+    /**
+     * 在需要时重新计算表盘布局,只有尺寸、屏幕密度或样式变化后才会真正计算
+     */
+    LifeClockDialLayout ensureDialLayout() {
+        if (mDialLayoutDirty && mWidth > 0 && mHeight > 0) {
+            mDialLayout.build(mWidth, mHeight, mAgeTextList, mAgeTextPaint, mZeroAgeTipsTextPaint,
+                    mPercentTipsTextPaint, mRemainingTextPaint, mStyle.getAgeTextOffset(),
+                    mStyle.getZeroAgeDownCircleRadius(), mStyle.getZeroAgeDownCircleOffset(), mStyle.getTickMode());
+            mDialLayoutDirty = false;
+            mLabelClipCount = -1;
+            invalidateStaticLayer();
+            invalidatePointerLayer();
+        }
+        return mDialLayout;
+    }
+
+    /**
+     * 指针从0岁转到最后一个年龄文本的总角度(需要减去最后一段,比如0~80,需要忽略80~0的角度)
+     */
+    float getSweepAngle() {
+        return DialGeometry.sweepAngle(mAgeTextList.size());
+    }
+
+    // ---------------------------------------------------------------- 帧状态
+
+    int getCurrentAge() {
+        return mCurrentAge;
+    }
+
+    /**
+     * 年龄文本的颜色跟随指针角度,年龄变化不需要重新录制静态层
+     */
+    void setCurrentAge(int currentAge) {
+        if (mCurrentAge != currentAge) {
+            mCurrentAge = currentAge;
+            mContentVersion++;
+        }
+    }
+
+    /**
+     * 设置年龄,并根据当前样式的最大年龄计算百分比与指针最终角度
+     */
+    void applyAge(int currentAge) {
+        setCurrentAge(currentAge);
+        int dialMaxAge = mStyle.getDialMaxAge();
+        setPercent(DialGeometry.percent(currentAge, dialMaxAge));
+        setPointerFinalAngle(DialGeometry.pointerAngle(currentAge, dialMaxAge, mAgeTextList.size()));
+    }
+
+    boolean isShowZeroAgeTips() {
+        return mShowZeroAgeTips;
+    }
+
+    void setShowZeroAgeTips(boolean showZeroAgeTips) {
+        if (mShowZeroAgeTips != showZeroAgeTips) {
+            mShowZeroAgeTips = showZeroAgeTips;
+            invalidateStaticLayer();
+            mContentVersion++;
+        }
+    }
+
+    int getPercent() {
+        return mPercent;
+    }
+
+    /**
+     * 更新百分比文本及其尺寸,0%~100%直接使用共享缓存中的字符串与测量结果
+     */
+    void setPercent(int percent) {
+        if (mPercent != percent || mPercentStr == null) {
+            invalidatePercentLayer();
+            mContentVersion++;
+        }
+        mPercent = percent;
+        mPercentStr = LifeClockTextMetricsCache.percentString(percent);
+        if (percent >= 0 && percent <= LifeClockTextMetricsCache.MAX_PERCENT) {
+            mDialLayout.setPercentMetrics(mPercentMetrics.width(percent), mPercentMetrics.height(percent));
+        } else {
+            mDialLayout.measurePercent(mPercentStr, mPercentTextPaint);
+        }
+    }
+
+    float getPointerAngle() {
+        return mPointerLineAngle;
+    }
+
+    int getPointerAlpha() {
+        return mPointerLineAndPercentAlpha;
+    }
+
+    void setPointer(float angle, int alpha) {
+        if (mPointerLineAngle != angle || mPointerLineAndPercentAlpha != alpha) {
+            mContentVersion++;
+        }
+        mPointerLineAngle = angle;
+        mPointerLineAndPercentAlpha = alpha;
+    }
+
+    /**
+     * 指针动画的一帧:上一次绘制使用了指针层时,直接修改RenderNode的旋转角度与透明度
+     *
+     * @return 是否需要重新执行{@link #draw(Canvas)},为false时只需要让下一帧同步RenderNode属性
+     */
+    boolean setPointerFrame(float angle, int alpha) {
+        setPointer(angle, alpha);
+        if (!mPointerLayerDrawn || mDialLayoutDirty) {
+            return true;
+        }
+        // 指针扫过年龄文本或刻度时两者的颜色需要变化
+        if (getPastLabelCount() != mDrawnPastLabelCount || getPastTickCount() != mDrawnPastTickCount) {
+            return true;
+        }
+        mPointerLayer.setFrame(angle, alpha);
+        return false;
+    }
+
+    float getPointerFinalAngle() {
+        return mPointerLineAngleFinal;
+    }
+
+    void setPointerFinalAngle(float angle) {
+        if (mPointerLineAngleFinal != angle) {
+            // 百分比文本的位置取决于最终角度
+            invalidatePercentLayer();
+            mContentVersion++;
+        }
+        mPointerLineAngleFinal = angle;
+    }
+
+    /**
+     * @param readout 剩余时间文本,为null时不绘制
+     */
+    void setReadout(char[] readout, int length) {
+        mReadout = readout;
+        mReadoutLength = length;
+        // 剩余时间文本原地更新,每次调用都视为内容变化
+        invalidatePercentLayer();
+        mContentVersion++;
+    }
+
+    /**
+     * 两次绘制之间该值不变说明绘制结果相同
+     */
+    int getContentVersion() {
+        return mContentVersion;
+    }
+
+    // ---------------------------------------------------------------- 资源
+
+    void setStaticLayerCacheEnabled(boolean enabled) {
+        mStaticLayerCacheEnabled = enabled;
+        if (!enabled && mPastLayer != null) {
+            mPastLayer.release();
+            mFutureLayer.release();
+            mPastLayer = null;
+            mFutureLayer = null;
+        }
+    }
+
+    boolean isStaticLayerCacheEnabled() {
+        return mStaticLayerCacheEnabled;
+    }
+
+    /**
+     * 表盘静态部分(年龄文本、编辑图标、0岁圆点、出生日说明)发生变化时调用
+     */
+    private void invalidateStaticLayer() {
+        if (mPastLayer != null) {
+            mPastLayer.invalidate();
+            mFutureLayer.invalidate();
+        }
+    }
+
+    private void invalidatePointerLayer() {
+        if (mPointerLayer != null) {
+            mPointerLayer.invalidatePointer();
+            mPointerLayer.invalidatePercent();
+        }
+    }
+
+    private void invalidatePercentLayer() {
+        if (mPointerLayer != null) {
+            mPointerLayer.invalidatePercent();
+        }
+    }
+
+    /**
+     * 从共享缓存中获取与当前布局尺寸一致的编辑图标
+     */
+    private void ensureEditBitmap() {
+        int height = mDialLayout.mEditIconHeight;
+        if (height == 0 || (mEditBitmap != null && mEditBitmapHeight == height)) {
+            return;
+        }
+        releaseEditBitmap();
+        mEditBitmap = LifeClockIconCache.acquire(mResources, height);
+        mEditBitmapHeight = height;
+        invalidateStaticLayer();
+    }
+
+    private void releaseEditBitmap() {
+        if (mEditBitmap != null) {
+            LifeClockIconCache.release(mEditBitmapHeight);
+            mEditBitmap = null;
+        }
+    }
+
+    /**
+     * 释放编辑图标、静态层缓存与指针层,之后再绘制时会重新获取
+     */
+    void releaseResources() {
+        releaseEditBitmap();
+        if (mPastLayer != null) {
+            mPastLayer.release();
+            mFutureLayer.release();
+        }
+        if (mPointerLayer != null) {
+            mPointerLayer.release();
+        }
+        mPointerLayerDrawn = false;
+    }
+
+    // ---------------------------------------------------------------- 绘制
+
+    void draw(Canvas canvas) {
+        ensureDialLayout();
+        ensureEditBitmap();
+
+        int pastTickCount = getPastTickCount();
+        drawTicks(canvas, pastTickCount);
+        int pastLabelCount = getPastLabelCount();
+        if (mStaticLayerCacheEnabled) {
+            if (mPastLayer == null) {
+                mPastLayer = new LifeClockStaticLayer(new LifeClockStaticLayer.Painter() {
+                    @Override
+                    public void paint(Canvas canvas) {
+                        drawStaticRing(canvas, mDialLayout.mLabelCount);
+                    }
+                });
+                mFutureLayer = new LifeClockStaticLayer(new LifeClockStaticLayer.Painter() {
+                    @Override
+                    public void paint(Canvas canvas) {
+                        drawStaticRing(canvas, 0);
+                    }
+                });
+            }
+            drawStaticLayers(canvas, pastLabelCount);
+        } else {
+            drawStaticRing(canvas, pastLabelCount);
+        }
+        mDrawnPastLabelCount = pastLabelCount;
+        mDrawnPastTickCount = pastTickCount;
+        mPointerLayerDrawn = false;
+        if (mPointerLineAngleFinal > 0) {
+            if (canUsePointerLayer(canvas)) {
+                ensurePointerLayer().draw(canvas, mWidth, mHeight, mPointerLineAngle, mPointerLineAndPercentAlpha);
+                mPointerLayerDrawn = true;
+            } else {
+                drawCenterCircle(canvas, mPointerLineAndPercentAlpha);
+                drawPointerLine(canvas, mPointerLineAngle, mPointerLineAndPercentAlpha);
+                drawPercent(canvas, mPointerLineAndPercentAlpha);
+            }
+        }
+    }
+
+    /**
+     * canvas支持绘制RenderNode时才能使用指针层.
+     * 判断不放在LifeClockPointerLayer中,低版本系统上就不会加载引用了Android Q API的指针层
+     */
+    private static boolean canUsePointerLayer(Canvas canvas) {
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q && canvas.isHardwareAccelerated();
+    }
+
+    private LifeClockPointerLayer ensurePointerLayer() {
+        if (mPointerLayer == null) {
+            mPointerLayer = new LifeClockPointerLayer(new LifeClockStaticLayer.Painter() {
+                @Override
+                public void paint(Canvas canvas) {
+                    drawCenterCircle(canvas, MAX_ALPHA);
+                    drawPointerLine(canvas, 0, MAX_ALPHA);
+                }
+            }, new LifeClockStaticLayer.Painter() {
+                @Override
+                public void paint(Canvas canvas) {
+                    drawPercent(canvas, MAX_ALPHA);
+                }
+            });
+        }
+        return mPointerLayer;
+    }
+
+    /**
+     * 绘制表盘中不随指针动画变化的部分(刻度除外)
+     *
+     * @param pastLabelCount 前多少个年龄文本使用已过去的颜色
+     */
+    private void drawStaticRing(Canvas canvas, int pastLabelCount) {
+        drawAgeText(canvas, pastLabelCount);
+        drawZeroAgeDownDot(canvas);
+    }
+
+    /**
+     * 指针已扫过(包括正好指向)的年龄文本数量,0岁总是算作已扫过
+     */
+    private int getPastLabelCount() {
+        return DialGeometry.pastLabelCount(mPointerLineAngle, mDialLayout.mLabelCount);
+    }
+
+    /**
+     * 指针已扫过的刻度数量,不显示刻度时为0
+     */
+    private int getPastTickCount() {
+        LifeClockDialLayout layout = mDialLayout;
+        return layout.mTickRingVisible ? layout.mTickRing.countAtAngle(mPointerLineAngle) : 0;
+    }
+
+    /**
+     * 扇形内使用已过去颜色的静态层,扇形外使用未到达颜色的静态层.
+     * 扇形边界位于相邻两个年龄文本的正中间,因此每个文本总是完整地取自其中一层
+     */
+    private void drawStaticLayers(Canvas canvas, int pastLabelCount) {
+        if (pastLabelCount >= mDialLayout.mLabelCount) {
+            mPastLayer.draw(canvas, mWidth, mHeight);
+            return;
+        }
+        Path clipPath = ensureLabelClipPath(pastLabelCount);
+        canvas.save();
+        canvas.clipPath(clipPath);
+        mPastLayer.draw(canvas, mWidth, mHeight);
+        canvas.restore();
+        canvas.save();
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            canvas.clipOutPath(clipPath);
+        } else {
+            canvas.clipPath(clipPath, Region.Op.DIFFERENCE);
+        }
+        mFutureLayer.draw(canvas, mWidth, mHeight);
+        canvas.restore();
+    }
+
+    private Path ensureLabelClipPath(int pastLabelCount) {
+        if (pastLabelCount != mLabelClipCount) {
+            float angleStep = mDialLayout.mLabelLayout.getAngleStep();
+            float radius = Math.max(mWidth, mHeight);
+            mLabelClipOval.set(-radius, -radius, radius, radius);
+            mLabelClipPath.reset();
+            mLabelClipPath.moveTo(0, 0);
+            // Canvas中0度指向右侧,表盘中0岁指向正上方
+            mLabelClipPath.arcTo(mLabelClipOval, -90 - angleStep / 2F, angleStep * pastLabelCount);
+            mLabelClipPath.close();
+            mLabelClipCount = pastLabelCount;
+        }
+        return mLabelClipPath;
+    }
+
+    private void drawPercent(Canvas canvas, int alpha) {
+        LifeClockDialLayout layout = mDialLayout;
+        boolean isDrawDown = !(mPointerLineAngleFinal > 90 && mPointerLineAngleFinal < 270);
+        mPercentTextPaint.setAlpha(alpha);
+        canvas.drawText(mPercentStr,
+                -layout.mPercentWidth / 2F,
+                isDrawDown ? layout.mPercentBaselineYDown : layout.mPercentBaselineYUp,
+                mPercentTextPaint);
+
+        mPercentTipsTextPaint.setAlpha(alpha);
+        canvas.drawText(LifeClockDialLayout.PERCENT_TIPS_STR,
+                -layout.mPercentTipsWidth / 2F,
+                isDrawDown ? layout.mPercentTipsBaselineYDown : layout.mPercentTipsBaselineYUp,
+                mPercentTipsTextPaint);
+
+        if (mReadout != null) {
+            mRemainingTextPaint.setAlpha(alpha);
+            canvas.drawText(mReadout, 0, mReadoutLength, 0,
+                    isDrawDown ? layout.mRemainingBaselineYDown : layout.mRemainingBaselineYUp,
+                    mRemainingTextPaint);
+        }
+    }
+
+    private void drawPointerLine(Canvas canvas, float angle, int alpha) {
+        LifeClockDialLayout layout = mDialLayout;
+        mPointerLinePaint.setAlpha(alpha);
+        canvas.save();
+        canvas.translate(0, layout.mPointerLinePivotOffset);
+        canvas.rotate(angle, 0, -layout.mPointerLinePivotOffset);
+        canvas.drawLine(0, 0, 0, layout.mPointerLineEndY, mPointerLinePaint);
+        canvas.restore();
+    }
+
+    private void drawCenterCircle(Canvas canvas, int alpha) {
+        mCenterCirclePaint.setAlpha(alpha);
+        canvas.drawCircle(0, 0, mStyle.getCenterCircleRadius(), mCenterCirclePaint);
+    }
+
+    private void drawAgeText(Canvas canvas, int pastLabelCount) {
+        LifeClockDialLayout layout = mDialLayout;
+        mAgeTextPaint.setColor(mStyle.getPastAgeTextColor());
+        for (int i = 0; i < pastLabelCount; i++) {
+            canvas.drawText(layout.mLabels[i], layout.mLabelX[i], layout.mLabelBaselineY[i], mAgeTextPaint);
+        }
+        mAgeTextPaint.setColor(mStyle.getAgeTextColor());
+        for (int i = pastLabelCount; i < layout.mLabelCount; i++) {
+            canvas.drawText(layout.mLabels[i], layout.mLabelX[i], layout.mLabelBaselineY[i], mAgeTextPaint);
+        }
+        if (mEditBitmap != null) {
+            canvas.drawBitmap(mEditBitmap, layout.mEditIconLeft, layout.mEditIconTop, null);
+        }
+    }
+
+    /**
+     * 刻度已预先计算为连续的线段数组,指针已扫过与未扫过的刻度各用一次drawLines绘制
+     */
+    private void drawTicks(Canvas canvas, int pastCount) {
+        LifeClockDialLayout layout = mDialLayout;
+        if (!layout.mTickRingVisible) {
+            return;
+        }
+        TickRing tickRing = layout.mTickRing;
+        float[] lines = tickRing.getLines();
+        int count = tickRing.getCount();
+        if (pastCount > 0) {
+            mTickPaint.setColor(mStyle.getPastAgeTextColor());
+            canvas.drawLines(lines, 0, pastCount * 4, mTickPaint);
+        }
+        if (pastCount < count) {
+            mTickPaint.setColor(mStyle.getAgeTextColor());
+            canvas.drawLines(lines, pastCount * 4, (count - pastCount) * 4, mTickPaint);
+        }
+    }
+
+    private void drawZeroAgeDownDot(Canvas canvas) {
+        LifeClockDialLayout layout = mDialLayout;
+        canvas.drawCircle(0, layout.mZeroAgeDownCircleCenterY, mStyle.getZeroAgeDownCircleRadius(), mZeroAgeDownCirclePaint);
+        if (mShowZeroAgeTips) {
+            canvas.drawRoundRect(layout.mZeroAgeTipsRectF, layout.mZeroAgeTipsRectCorners,
+                    layout.mZeroAgeTipsRectCorners, mZeroAgeTipsPaint);
+            canvas.drawText(LifeClockDialLayout.ZERO_AGE_TIPS_STR, layout.mZeroAgeTipsRectF.centerX(),
+                    layout.mZeroAgeTipsTextBaselineY, mZeroAgeTipsTextPaint);
+        }
+    }
+}
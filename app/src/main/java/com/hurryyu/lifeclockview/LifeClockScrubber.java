@@ -0,0 +1,177 @@
+package com.hurryyu.lifeclockview;
+
+import com.hurryyu.lifeclockview.core.DialGeometry;
+
+/**
+ * 拖动指针选择年龄
+ * <p>
+ * 触摸点通过极坐标直接换算为角度与年龄,不需要遍历点击区域.
+ * 只有按下的位置靠近指针或年龄文本所在的圆环时才会开始拖动,其他位置的滑动交给父View处理(例如ScrollView的滚动).
+ * 同一个MotionEvent中的所有历史采样点依次累加角度差,快速拖动越过0岁与最大年龄之间的空隙时
+ * 不会从一端跳到另一端;所有采样点处理完后才回调一次{@link Target#onScrubMove(float, int, boolean)}.
+ * 手指经过中心附近时角度不稳定,离开后从新的位置重新开始累加,指针不会跳变.
+ * 坐标系以表盘中心为原点.
+ */
+final class LifeClockScrubber {
+    interface Target {
+        void onScrubStart();
+
+        /**
+         * 每个MotionEvent最多回调一次
+         *
+         * @param angle      指针角度,范围[0, sweepAngle]
+         * @param age        角度对应的年龄
+         * @param ageChanged 年龄是否发生了变化
+         */
+        void onScrubMove(float angle, int age, boolean ageChanged);
+
+        void onScrubEnd(int age, boolean canceled);
+    }
+
+    private final Target mTarget;
+    private final float mTouchSlopSquare;
+
+    private int mDialMaxAge;
+    private int mLabelCount;
+    private float mSweepAngle;
+
+    private float mPointerLength;
+    private float mRingRadius;
+    private float mGrabHalfWidth;
+
+    private boolean mTracking;
+    private boolean mScrubbing;
+    private float mDownX;
+    private float mDownY;
+    private float mLastTouchAngle;
+    private float mAngle;
+    private int mAge;
+    private int mReportedAge;
+    private boolean mDirty;
+
+    LifeClockScrubber(Target target, float touchSlop) {
+        mTarget = target;
+        mTouchSlopSquare = touchSlop * touchSlop;
+    }
+
+    /**
+     * 设置可以开始拖动的区域,尺寸或样式变化后需要重新设置
+     *
+     * @param pointerLength 指针末端到表盘中心的距离
+     * @param ringRadius    年龄文本中心所在圆的半径
+     * @param grabHalfWidth 指针与圆环两侧可触摸的宽度
+     */
+    void setGrabArea(float pointerLength, float ringRadius, float grabHalfWidth) {
+        mPointerLength = pointerLength;
+        mRingRadius = ringRadius;
+        mGrabHalfWidth = grabHalfWidth;
+    }
+
+    /**
+     * ACTION_DOWN
+     *
+     * @param pointerAngle 当前的指针角度
+     * @return 是否按在了指针或圆环上,否则本次手势不会开始拖动
+     */
+    boolean begin(float x, float y, int dialMaxAge, int labelCount, float pointerAngle) {
+        mDialMaxAge = dialMaxAge;
+        mLabelCount = labelCount;
+        mSweepAngle = DialGeometry.sweepAngle(labelCount);
+        mTracking = isInGrabArea(x, y, pointerAngle);
+        mScrubbing = false;
+        mDirty = false;
+        mDownX = x;
+        mDownY = y;
+        return mTracking;
+    }
+
+    boolean isScrubbing() {
+        return mScrubbing;
+    }
+
+    /**
+     * 添加一个采样点(包括历史采样点),超过touch slop后开始拖动
+     */
+    void addSample(float x, float y) {
+        if (!mTracking) {
+            return;
+        }
+        // 靠近中心时角度不稳定,忽略;离开后的第一个采样点只作为新的起点
+        if (x * x + y * y < mTouchSlopSquare) {
+            mLastTouchAngle = Float.NaN;
+            return;
+        }
+        float touchAngle = DialGeometry.touchAngle(x, y);
+        if (!mScrubbing) {
+            float dx = x - mDownX;
+            float dy = y - mDownY;
+            if (dx * dx + dy * dy < mTouchSlopSquare) {
+                return;
+            }
+            mScrubbing = true;
+            mAngle = clampToDial(touchAngle);
+            mAge = DialGeometry.ageAtAngle(mAngle, mDialMaxAge, mLabelCount);
+            mReportedAge = -1;
+            mTarget.onScrubStart();
+        } else if (!Float.isNaN(mLastTouchAngle)) {
+            float angle = mAngle + DialGeometry.normalizeDelta(touchAngle - mLastTouchAngle);
+            mAngle = angle < 0 ? 0 : angle > mSweepAngle ? mSweepAngle : angle;
+            mAge = DialGeometry.ageAtAngle(mAngle, mDialMaxAge, mLabelCount);
+        }
+        mLastTouchAngle = touchAngle;
+        mDirty = true;
+    }
+
+    /**
+     * 一个MotionEvent的所有采样点添加完毕后调用
+     */
+    void flush() {
+        if (!mScrubbing || !mDirty) {
+            return;
+        }
+        mDirty = false;
+        boolean ageChanged = mAge != mReportedAge;
+        mReportedAge = mAge;
+        mTarget.onScrubMove(mAngle, mAge, ageChanged);
+    }
+
+    /**
+     * ACTION_UP / ACTION_CANCEL
+     *
+     * @return 是否结束了一次拖动(此时不应再处理点击)
+     */
+    boolean end(boolean canceled) {
+        mTracking = false;
+        if (!mScrubbing) {
+            return false;
+        }
+        flush();
+        mScrubbing = false;
+        mTarget.onScrubEnd(mAge, canceled);
+        return true;
+    }
+
+    /**
+     * 按下的位置是否靠近指针(从中心到末端的线段)或年龄文本所在的圆环
+     */
+    private boolean isInGrabArea(float x, float y, float pointerAngle) {
+        float distance = (float) Math.sqrt(x * x + y * y);
+        if (Math.abs(distance - mRingRadius) <= mGrabHalfWidth) {
+            return true;
+        }
+        double delta = Math.toRadians(DialGeometry.normalizeDelta(DialGeometry.touchAngle(x, y) - pointerAngle));
+        float along = distance * (float) Math.cos(delta);
+        float across = distance * (float) Math.abs(Math.sin(delta));
+        return along >= -mGrabHalfWidth && along <= mPointerLength + mGrabHalfWidth && across <= mGrabHalfWidth;
+    }
+
+    /**
+     * 0岁与最大年龄之间的空隙中的角度取较近的一端
+     */
+    private float clampToDial(float touchAngle) {
+        if (touchAngle <= mSweepAngle) {
+            return touchAngle;
+        }
+        return touchAngle - mSweepAngle < (360 - mSweepAngle) / 2 ? mSweepAngle : 0;
+    }
+}
@@ -0,0 +1,170 @@
+package com.hurryyu.lifeclockview;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Picture;
+import android.graphics.PorterDuff;
+import android.graphics.RenderNode;
+import android.os.Build;
+
+/**
+ * 表盘静态层缓存
+ * <p>
+ * 年龄文本、编辑图标、0岁圆点以及出生日说明在指针动画过程中不会变化,
+ * 这里将它们绘制一次并缓存起来,之后每一帧只需要把缓存贴到画布上.
+ * 软件绘制时缓存为离屏Bitmap;硬件加速时,Android Q及以上使用RenderNode,
+ * Android M及以上使用Picture,更低版本依然退回到Bitmap.
+ * 调用方负责在年龄、出生日说明状态、尺寸或颜色变化时调用{@link #invalidate()}.
+ */
+final class LifeClockStaticLayer {
+    private static final int MODE_NONE = 0;
+    private static final int MODE_BITMAP = 1;
+    private static final int MODE_PICTURE = 2;
+    private static final int MODE_RENDER_NODE = 3;
+
+    /**
+     * 静态层内容绘制回调,坐标系以View中心为原点
+     */
+    interface Painter {
+        void paint(Canvas canvas);
+    }
+
+    private final Painter mPainter;
+    private int mMode = MODE_NONE;
+    private boolean mValid;
+    private int mWidth;
+    private int mHeight;
+
+    private Bitmap mBitmap;
+    private Canvas mBitmapCanvas;
+    private Picture mPicture;
+    private RenderNode mRenderNode;
+
+    LifeClockStaticLayer(Painter painter) {
+        mPainter = painter;
+    }
+
+    /**
+     * 标记缓存失效,下一次绘制时重新录制
+     */
+    void invalidate() {
+        mValid = false;
+    }
+
+    /**
+     * 将静态层绘制到canvas上,canvas当前坐标系须以View中心为原点
+     */
+    void draw(Canvas canvas, int width, int height) {
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        int mode = chooseMode(canvas);
+        if (mode != mMode || width != mWidth || height != mHeight) {
+            release();
+            mMode = mode;
+            mWidth = width;
+            mHeight = height;
+        }
+        if (!mValid) {
+            record();
+            mValid = true;
+        }
+        canvas.save();
+        canvas.translate(-width / 2F, -height / 2F);
+        switch (mMode) {
+            case MODE_RENDER_NODE:
+                canvas.drawRenderNode(mRenderNode);
+                break;
+            case MODE_PICTURE:
+                canvas.drawPicture(mPicture);
+                break;
+            default:
+                canvas.drawBitmap(mBitmap, 0, 0, null);
+                break;
+        }
+        canvas.restore();
+    }
+
+    private int chooseMode(Canvas canvas) {
+        if (canvas.isHardwareAccelerated()) {
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+                return MODE_RENDER_NODE;
+            }
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+                return MODE_PICTURE;
+            }
+        }
+        return MODE_BITMAP;
+    }
+
+    private void record() {
+        Canvas recordingCanvas;
+        switch (mMode) {
+            case MODE_RENDER_NODE:
+                if (mRenderNode == null) {
+                    mRenderNode = new RenderNode("LifeClockStaticLayer");
+                    mRenderNode.setPosition(0, 0, mWidth, mHeight);
+                }
+                recordingCanvas = RenderNodeCompat.beginRecording(mRenderNode, mWidth, mHeight);
+                break;
+            case MODE_PICTURE:
+                if (mPicture == null) {
+                    mPicture = new Picture();
+                }
+                recordingCanvas = mPicture.beginRecording(mWidth, mHeight);
+                break;
+            default:
+                if (mBitmap == null) {
+                    mBitmap = Bitmap.createBitmap(mWidth, mHeight, Bitmap.Config.ARGB_8888);
+                    mBitmapCanvas = new Canvas(mBitmap);
+                } else {
+                    mBitmapCanvas.drawColor(Color.TRANSPARENT, PorterDuff.Mode.CLEAR);
+                }
+                recordingCanvas = mBitmapCanvas;
+                break;
+        }
+        int saveCount = recordingCanvas.save();
+        recordingCanvas.translate(mWidth / 2F, mHeight / 2F);
+        mPainter.paint(recordingCanvas);
+        recordingCanvas.restoreToCount(saveCount);
+        switch (mMode) {
+            case MODE_RENDER_NODE:
+                mRenderNode.endRecording();
+                break;
+            case MODE_PICTURE:
+                mPicture.endRecording();
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * 释放缓存占用的内存,下一次绘制时会重新创建
+     */
+    void release() {
+        if (mRenderNode != null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            mRenderNode.discardDisplayList();
+        }
+        mRenderNode = null;
+        mPicture = null;
+        if (mBitmap != null) {
+            mBitmap.recycle();
+            mBitmap = null;
+        }
+        mBitmapCanvas = null;
+        mMode = MODE_NONE;
+        mValid = false;
+    }
+
+    /**
+     * beginRecording返回Android Q才有的RecordingCanvas,放在单独的类中,
+     * 避免低版本系统校验LifeClockStaticLayer时因找不到该类而校验失败
+     */
+    private static final class RenderNodeCompat {
+        static Canvas beginRecording(RenderNode node, int width, int height) {
+            return node.beginRecording(width, height);
+        }
+    }
+}
@@ -0,0 +1,437 @@
+package com.hurryyu.lifeclockview;
+
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.graphics.Color;
+import android.util.AttributeSet;
+import android.util.DisplayMetrics;
+import android.util.TypedValue;
+
+import androidx.annotation.Nullable;
+
+import com.hurryyu.lifeclockview.core.DialGeometry;
+
+/**
+ * 生命时钟的样式(颜色、尺寸与最大年龄)
+ * <p>
+ * 创建后不可变,因此可以在UI线程与渲染线程之间直接传递而无需加锁.
+ * 所有尺寸均为px,可通过{@link Builder}创建或通过{@link #buildUpon()}修改.
+ */
+public final class LifeClockStyle {
+    /**
+     * 表盘可显示的最大年龄
+     */
+    public static final int MAX_AGE = DialGeometry.MAX_AGE;
+    /**
+     * 表盘上每隔多少岁显示一个年龄文本
+     */
+    public static final int AGE_STEP = DialGeometry.AGE_STEP;
+    /**
+     * 不显示刻度
+     */
+    public static final int TICK_MODE_NONE = 0;
+    /**
+     * 每年一个刻度
+     */
+    public static final int TICK_MODE_YEARS = 1;
+    /**
+     * 每月一个刻度,表盘太小时自动降低密度
+     */
+    public static final int TICK_MODE_MONTHS = 2;
+
+    private static final int DEFAULT_AGE_TEXT_COLOR = Color.parseColor("#333333");
+    private static final int DEFAULT_PAST_AGE_TEXT_COLOR = Color.parseColor("#C5C5C5");
+    private static final float DEFAULT_AGE_TEXT_SIZE = 22;
+    private static final float DEFAULT_AGE_TEXT_OFFSET = 24;
+    private static final float DEFAULT_ZERO_AGE_DOWN_CIRCLE_RADIUS = 4;
+    private static final int DEFAULT_ZERO_AGE_DOWN_CIRCLE_COLOR = Color.parseColor("#F7C747");
+    private static final float DEFAULT_ZERO_AGE_DOWN_CIRCLE_OFFSET = 5;
+    private static final float DEFAULT_CENTER_CIRCLE_RADIUS = 6;
+    private static final int DEFAULT_CENTER_CIRCLE_COLOR = Color.BLACK;
+    private static final float DEFAULT_POINTER_LINE_WIDTH = 4;
+    private static final int DEFAULT_POINTER_LINE_COLOR = Color.BLACK;
+    private static final int DEFAULT_ZERO_AGE_TIPS_RECT_COLOR = Color.parseColor("#F7C747");
+    private static final int DEFAULT_MAX_AGE = 80;
+    private static final int DEFAULT_TICK_MODE = TICK_MODE_NONE;
+
+    /**
+     * 年龄文本字体颜色
+     */
+    private final int mAgeTextColor;
+    /**
+     * 已经过去的年龄文本字体颜色
+     */
+    private final int mPastAgeTextColor;
+    /**
+     * 年龄文本字体大小
+     */
+    private final float mAgeTextSize;
+    /**
+     * 年龄文本中心点与外圆的偏移量
+     */
+    private final float mAgeTextOffset;
+    /**
+     * 0岁年龄下方圆圈的半径
+     */
+    private final float mZeroAgeDownCircleRadius;
+    /**
+     * 0岁年龄下方圆圈颜色
+     */
+    private final int mZeroAgeDownCircleColor;
+    /**
+     * 圆圈偏移量
+     */
+    private final float mZeroAgeDownCircleOffset;
+    /**
+     * 中心圆点半径
+     */
+    private final float mCenterCircleRadius;
+    /**
+     * 中心圆点颜色
+     */
+    private final int mCenterCircleColor;
+    /**
+     * 指针宽度
+     */
+    private final float mPointerLineWidth;
+    /**
+     * 指针颜色
+     */
+    private final int mPointerLineColor;
+    /**
+     * 出生日说明矩形区域颜色
+     */
+    private final int mZeroAgeTipsRectColor;
+    /**
+     * 表盘中显示的最大年龄
+     */
+    private final int mMaxAge;
+    /**
+     * 外圈刻度模式
+     */
+    private final int mTickMode;
+
+    private LifeClockStyle(Builder builder) {
+        mAgeTextColor = builder.mAgeTextColor;
+        mPastAgeTextColor = builder.mPastAgeTextColor;
+        mAgeTextSize = builder.mAgeTextSize;
+        mAgeTextOffset = builder.mAgeTextOffset;
+        mZeroAgeDownCircleRadius = builder.mZeroAgeDownCircleRadius;
+        mZeroAgeDownCircleColor = builder.mZeroAgeDownCircleColor;
+        mZeroAgeDownCircleOffset = builder.mZeroAgeDownCircleOffset;
+        mCenterCircleRadius = builder.mCenterCircleRadius;
+        mCenterCircleColor = builder.mCenterCircleColor;
+        mPointerLineWidth = builder.mPointerLineWidth;
+        mPointerLineColor = builder.mPointerLineColor;
+        mZeroAgeTipsRectColor = builder.mZeroAgeTipsRectColor;
+        mMaxAge = builder.mMaxAge;
+        mTickMode = builder.mTickMode;
+    }
+
+    /**
+     * 从xml属性中读取样式,未设置的属性使用默认值
+     */
+    public static LifeClockStyle obtain(Context context, @Nullable AttributeSet attrs) {
+        Builder builder = new Builder(context.getResources().getDisplayMetrics());
+        if (attrs == null) {
+            return builder.build();
+        }
+        TypedArray typedArray = context.obtainStyledAttributes(attrs, R.styleable.LifeClockView);
+        builder.setAgeTextColor(typedArray.getColor(R.styleable.LifeClockView_lcv_age_text_color, builder.mAgeTextColor))
+                .setPastAgeTextColor(typedArray.getColor(R.styleable.LifeClockView_lcv_past_age_text_color, builder.mPastAgeTextColor))
+                .setAgeTextSize(typedArray.getDimension(R.styleable.LifeClockView_lcv_age_text_size, builder.mAgeTextSize))
+                .setAgeTextOffset(typedArray.getDimension(R.styleable.LifeClockView_lcv_age_text_offset, builder.mAgeTextOffset))
+                .setZeroAgeDownCircleRadius(typedArray.getDimension(R.styleable.LifeClockView_lcv_zero_age_down_circle_radius, builder.mZeroAgeDownCircleRadius))
+                .setZeroAgeDownCircleColor(typedArray.getColor(R.styleable.LifeClockView_lcv_zero_age_down_circle_color, builder.mZeroAgeDownCircleColor))
+                .setZeroAgeDownCircleOffset(typedArray.getDimension(R.styleable.LifeClockView_lcv_zero_age_down_circle_offset, builder.mZeroAgeDownCircleOffset))
+                .setCenterCircleRadius(typedArray.getDimension(R.styleable.LifeClockView_lcv_center_circle_radius, builder.mCenterCircleRadius))
+                .setCenterCircleColor(typedArray.getColor(R.styleable.LifeClockView_lcv_center_circle_color, builder.mCenterCircleColor))
+                .setPointerLineWidth(typedArray.getDimension(R.styleable.LifeClockView_lcv_pointer_line_width, builder.mPointerLineWidth))
+                .setPointerLineColor(typedArray.getColor(R.styleable.LifeClockView_lcv_pointer_line_color, builder.mPointerLineColor))
+                .setMaxAge(typedArray.getInt(R.styleable.LifeClockView_lcv_current_max_age, builder.mMaxAge))
+                .setTickMode(typedArray.getInt(R.styleable.LifeClockView_lcv_tick_mode, builder.mTickMode));
+        typedArray.recycle();
+        return builder.build();
+    }
+
+    public Builder buildUpon() {
+        return new Builder(this);
+    }
+
+    /**
+     * 检查样式是否可以绘制,不合法时抛出IllegalArgumentException
+     */
+    void checkValid() {
+        if (mMaxAge < AGE_STEP) {
+            throw new IllegalArgumentException("maxAge must be >= " + AGE_STEP + ", was " + mMaxAge);
+        }
+        checkSize("ageTextSize", mAgeTextSize);
+        checkSize("ageTextOffset", mAgeTextOffset);
+        checkSize("zeroAgeDownCircleRadius", mZeroAgeDownCircleRadius);
+        checkSize("zeroAgeDownCircleOffset", mZeroAgeDownCircleOffset);
+        checkSize("centerCircleRadius", mCenterCircleRadius);
+        checkSize("pointerLineWidth", mPointerLineWidth);
+        if (mTickMode < TICK_MODE_NONE || mTickMode > TICK_MODE_MONTHS) {
+            throw new IllegalArgumentException("unknown tickMode " + mTickMode);
+        }
+    }
+
+    private static void checkSize(String name, float value) {
+        if (!(value >= 0) || Float.isInfinite(value)) {
+            throw new IllegalArgumentException(name + " must be a finite value >= 0, was " + value);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof LifeClockStyle)) {
+            return false;
+        }
+        LifeClockStyle style = (LifeClockStyle) o;
+        return mAgeTextColor == style.mAgeTextColor &&
+                mPastAgeTextColor == style.mPastAgeTextColor &&
+                Float.compare(mAgeTextSize, style.mAgeTextSize) == 0 &&
+                Float.compare(mAgeTextOffset, style.mAgeTextOffset) == 0 &&
+                Float.compare(mZeroAgeDownCircleRadius, style.mZeroAgeDownCircleRadius) == 0 &&
+                mZeroAgeDownCircleColor == style.mZeroAgeDownCircleColor &&
+                Float.compare(mZeroAgeDownCircleOffset, style.mZeroAgeDownCircleOffset) == 0 &&
+                Float.compare(mCenterCircleRadius, style.mCenterCircleRadius) == 0 &&
+                mCenterCircleColor == style.mCenterCircleColor &&
+                Float.compare(mPointerLineWidth, style.mPointerLineWidth) == 0 &&
+                mPointerLineColor == style.mPointerLineColor &&
+                mZeroAgeTipsRectColor == style.mZeroAgeTipsRectColor &&
+                mMaxAge == style.mMaxAge &&
+                mTickMode == style.mTickMode;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = mAgeTextColor;
+        result = 31 * result + mPastAgeTextColor;
+        result = 31 * result + Float.floatToIntBits(mAgeTextSize);
+        result = 31 * result + Float.floatToIntBits(mAgeTextOffset);
+        result = 31 * result + Float.floatToIntBits(mZeroAgeDownCircleRadius);
+        result = 31 * result + mZeroAgeDownCircleColor;
+        result = 31 * result + Float.floatToIntBits(mZeroAgeDownCircleOffset);
+        result = 31 * result + Float.floatToIntBits(mCenterCircleRadius);
+        result = 31 * result + mCenterCircleColor;
+        result = 31 * result + Float.floatToIntBits(mPointerLineWidth);
+        result = 31 * result + mPointerLineColor;
+        result = 31 * result + mZeroAgeTipsRectColor;
+        result = 31 * result + mMaxAge;
+        result = 31 * result + mTickMode;
+        return result;
+    }
+
+    public int getAgeTextColor() {
+        return mAgeTextColor;
+    }
+
+    public int getPastAgeTextColor() {
+        return mPastAgeTextColor;
+    }
+
+    public float getAgeTextSize() {
+        return mAgeTextSize;
+    }
+
+    public float getAgeTextOffset() {
+        return mAgeTextOffset;
+    }
+
+    public float getZeroAgeDownCircleRadius() {
+        return mZeroAgeDownCircleRadius;
+    }
+
+    public int getZeroAgeDownCircleColor() {
+        return mZeroAgeDownCircleColor;
+    }
+
+    public float getZeroAgeDownCircleOffset() {
+        return mZeroAgeDownCircleOffset;
+    }
+
+    public float getCenterCircleRadius() {
+        return mCenterCircleRadius;
+    }
+
+    public int getCenterCircleColor() {
+        return mCenterCircleColor;
+    }
+
+    public float getPointerLineWidth() {
+        return mPointerLineWidth;
+    }
+
+    public int getPointerLineColor() {
+        return mPointerLineColor;
+    }
+
+    public int getZeroAgeTipsRectColor() {
+        return mZeroAgeTipsRectColor;
+    }
+
+    public int getMaxAge() {
+        return mMaxAge;
+    }
+
+    /**
+     * @return {@link #TICK_MODE_NONE}、{@link #TICK_MODE_YEARS}或{@link #TICK_MODE_MONTHS}
+     */
+    public int getTickMode() {
+        return mTickMode;
+    }
+
+    /**
+     * 表盘上最后一个年龄文本对应的年龄(最大年龄向下取整到{@link #AGE_STEP}的倍数)
+     */
+    public int getDialMaxAge() {
+        return DialGeometry.dialMaxAge(mMaxAge);
+    }
+
+    /**
+     * 表盘上年龄文本的个数
+     */
+    public int getLabelCount() {
+        return DialGeometry.labelCount(mMaxAge);
+    }
+
+    public static final class Builder {
+        private int mAgeTextColor;
+        private int mPastAgeTextColor;
+        private float mAgeTextSize;
+        private float mAgeTextOffset;
+        private float mZeroAgeDownCircleRadius;
+        private int mZeroAgeDownCircleColor;
+        private float mZeroAgeDownCircleOffset;
+        private float mCenterCircleRadius;
+        private int mCenterCircleColor;
+        private float mPointerLineWidth;
+        private int mPointerLineColor;
+        private int mZeroAgeTipsRectColor;
+        private int mMaxAge;
+        private int mTickMode;
+
+        /**
+         * 以默认样式创建,dp/sp按metrics换算为px
+         */
+        public Builder(DisplayMetrics metrics) {
+            mAgeTextColor = DEFAULT_AGE_TEXT_COLOR;
+            mPastAgeTextColor = DEFAULT_PAST_AGE_TEXT_COLOR;
+            mAgeTextSize = TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP, DEFAULT_AGE_TEXT_SIZE, metrics);
+            mAgeTextOffset = TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, DEFAULT_AGE_TEXT_OFFSET, metrics);
+            mZeroAgeDownCircleRadius = TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, DEFAULT_ZERO_AGE_DOWN_CIRCLE_RADIUS, metrics);
+            mZeroAgeDownCircleColor = DEFAULT_ZERO_AGE_DOWN_CIRCLE_COLOR;
+            mZeroAgeDownCircleOffset = TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, DEFAULT_ZERO_AGE_DOWN_CIRCLE_OFFSET, metrics);
+            mCenterCircleRadius = TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, DEFAULT_CENTER_CIRCLE_RADIUS, metrics);
+            mCenterCircleColor = DEFAULT_CENTER_CIRCLE_COLOR;
+            mPointerLineWidth = TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, DEFAULT_POINTER_LINE_WIDTH, metrics);
+            mPointerLineColor = DEFAULT_POINTER_LINE_COLOR;
+            mZeroAgeTipsRectColor = DEFAULT_ZERO_AGE_TIPS_RECT_COLOR;
+            mMaxAge = DEFAULT_MAX_AGE;
+            mTickMode = DEFAULT_TICK_MODE;
+        }
+
+        public Builder(LifeClockStyle style) {
+            mAgeTextColor = style.mAgeTextColor;
+            mPastAgeTextColor = style.mPastAgeTextColor;
+            mAgeTextSize = style.mAgeTextSize;
+            mAgeTextOffset = style.mAgeTextOffset;
+            mZeroAgeDownCircleRadius = style.mZeroAgeDownCircleRadius;
+            mZeroAgeDownCircleColor = style.mZeroAgeDownCircleColor;
+            mZeroAgeDownCircleOffset = style.mZeroAgeDownCircleOffset;
+            mCenterCircleRadius = style.mCenterCircleRadius;
+            mCenterCircleColor = style.mCenterCircleColor;
+            mPointerLineWidth = style.mPointerLineWidth;
+            mPointerLineColor = style.mPointerLineColor;
+            mZeroAgeTipsRectColor = style.mZeroAgeTipsRectColor;
+            mMaxAge = style.mMaxAge;
+            mTickMode = style.mTickMode;
+        }
+
+        public Builder setAgeTextColor(int ageTextColor) {
+            mAgeTextColor = ageTextColor;
+            return this;
+        }
+
+        public Builder setPastAgeTextColor(int pastAgeTextColor) {
+            mPastAgeTextColor = pastAgeTextColor;
+            return this;
+        }
+
+        public Builder setAgeTextSize(float ageTextSize) {
+            mAgeTextSize = ageTextSize;
+            return this;
+        }
+
+        public Builder setAgeTextOffset(float ageTextOffset) {
+            mAgeTextOffset = ageTextOffset;
+            return this;
+        }
+
+        public Builder setZeroAgeDownCircleRadius(float zeroAgeDownCircleRadius) {
+            mZeroAgeDownCircleRadius = zeroAgeDownCircleRadius;
+            return this;
+        }
+
+        public Builder setZeroAgeDownCircleColor(int zeroAgeDownCircleColor) {
+            mZeroAgeDownCircleColor = zeroAgeDownCircleColor;
+            return this;
+        }
+
+        public Builder setZeroAgeDownCircleOffset(float zeroAgeDownCircleOffset) {
+            mZeroAgeDownCircleOffset = zeroAgeDownCircleOffset;
+            return this;
+        }
+
+        public Builder setCenterCircleRadius(float centerCircleRadius) {
+            mCenterCircleRadius = centerCircleRadius;
+            return this;
+        }
+
+        public Builder setCenterCircleColor(int centerCircleColor) {
+            mCenterCircleColor = centerCircleColor;
+            return this;
+        }
+
+        public Builder setPointerLineWidth(float pointerLineWidth) {
+            mPointerLineWidth = pointerLineWidth;
+            return this;
+        }
+
+        public Builder setPointerLineColor(int pointerLineColor) {
+            mPointerLineColor = pointerLineColor;
+            return this;
+        }
+
+        public Builder setZeroAgeTipsRectColor(int zeroAgeTipsRectColor) {
+            mZeroAgeTipsRectColor = zeroAgeTipsRectColor;
+            return this;
+        }
+
+        /**
+         * 超过{@link #MAX_AGE}时取{@link #MAX_AGE}
+         */
+        public Builder setMaxAge(int maxAge) {
+            mMaxAge = maxAge > MAX_AGE ? MAX_AGE : maxAge;
+            return this;
+        }
+
+        /**
+         * 外圈刻度,刻度颜色与年龄文本相同(已过去的刻度使用已过去的年龄文本颜色)
+         *
+         * @param tickMode {@link #TICK_MODE_NONE}、{@link #TICK_MODE_YEARS}或{@link #TICK_MODE_MONTHS}
+         */
+        public Builder setTickMode(int tickMode) {
+            mTickMode = tickMode;
+            return this;
+        }
+
+        public LifeClockStyle build() {
+            return new LifeClockStyle(this);
+        }
+    }
+}
@@ -0,0 +1,383 @@
+package com.hurryyu.lifeclockview;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.content.res.TypedArray;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.os.Build;
+import android.util.AttributeSet;
+import android.view.SurfaceHolder;
+import android.view.SurfaceView;
+
+import androidx.annotation.Nullable;
+
+import com.hurryyu.lifeclockview.core.DialGeometry;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 在独立渲染线程中绘制的生命时钟,适用于同一屏幕上有大量动画时钟的场景(例如平板仪表盘)
+ * <p>
+ * 与{@link LifeClockView}使用同一套绘制逻辑({@link LifeClockRenderer}),但所有绘制与指针动画都在
+ * 共享的渲染线程({@link LifeClockRenderThread})中按vsync进行,不占用UI线程.
+ * UI线程每次修改年龄或样式时发布一份不可变的状态快照,渲染线程在下一帧读取最新的快照,UI线程不持有任何锁.
+ * 本View只负责显示,不处理点击;需要交互时请使用{@link LifeClockView}.
+ */
+public class LifeClockSurfaceView extends SurfaceView implements SurfaceHolder.Callback {
+    private static final int DEFAULT_SURFACE_BACKGROUND_COLOR = Color.WHITE;
+    private static final long POINTER_ANIMATION_DURATION = 1500;
+    private static final long BIND_ANIMATION_DURATION = 300;
+    /**
+     * Surface销毁时等待渲染线程停止绘制的最长时间
+     */
+    private static final long SURFACE_DESTROY_TIMEOUT = 1000;
+
+    private final LifeClockRenderThread mRenderThread;
+    private final SurfaceClient mClient;
+
+    /**
+     * 以下字段只在UI线程中访问,修改后通过{@link #publish()}发布新的快照
+     */
+    private LifeClockStyle mStyle;
+    private int mCurrentAge;
+    private int mPercent;
+    private float mPointerFromAngle;
+    private float mPointerFinalAngle;
+    private long mPointerDuration;
+    private int mAnimationGeneration;
+    private int mSurfaceBackgroundColor = DEFAULT_SURFACE_BACKGROUND_COLOR;
+    private boolean mStaticLayerCacheEnabled;
+    private int mWidth;
+    private int mHeight;
+    /**
+     * 是否是第一次计算指针角度
+     */
+    private boolean isFirstCalc = true;
+
+    public LifeClockSurfaceView(Context context) {
+        this(context, null);
+    }
+
+    public LifeClockSurfaceView(Context context, @Nullable AttributeSet attrs) {
+        this(context, attrs, 0);
+    }
+
+    public LifeClockSurfaceView(Context context, @Nullable AttributeSet attrs, int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+        mStyle = LifeClockStyle.obtain(context, attrs);
+        if (attrs != null) {
+            TypedArray typedArray = context.obtainStyledAttributes(attrs, R.styleable.LifeClockView);
+            mStaticLayerCacheEnabled = typedArray.getBoolean(R.styleable.LifeClockView_lcv_static_layer_cache, false);
+            typedArray.recycle();
+        }
+        mRenderThread = LifeClockRenderThread.get();
+        mClient = new SurfaceClient(getResources());
+        getHolder().addCallback(this);
+        publish();
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        int widthSize = MeasureSpec.getSize(widthMeasureSpec);
+        int heightSize = MeasureSpec.getSize(heightMeasureSpec);
+        int size = Math.min(widthSize, heightSize);
+        setMeasuredDimension(size, size);
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        mRenderThread.register(mClient);
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        final SurfaceClient client = mClient;
+        mRenderThread.unregister(client, new Runnable() {
+            @Override
+            public void run() {
+                client.releaseRenderer();
+            }
+        });
+    }
+
+    @Override
+    public void surfaceCreated(SurfaceHolder holder) {
+        mClient.mSurfaceHolder = holder;
+        mRenderThread.requestFrame();
+    }
+
+    @Override
+    public void surfaceChanged(SurfaceHolder holder, int format, int width, int height) {
+        mWidth = width;
+        mHeight = height;
+        publish();
+    }
+
+    @Override
+    public void surfaceDestroyed(SurfaceHolder holder) {
+        // 回调返回后不能再访问Surface,必须等待渲染线程结束当前帧
+        final SurfaceClient client = mClient;
+        mRenderThread.runAndWait(new Runnable() {
+            @Override
+            public void run() {
+                client.mSurfaceHolder = null;
+                client.releaseRenderer();
+            }
+        }, SURFACE_DESTROY_TIMEOUT);
+    }
+
+    public void setCurrentAge(int currentAge) {
+        applyCurrentAge(currentAge);
+        startPointerAnimation(POINTER_ANIMATION_DURATION);
+        publish();
+    }
+
+    /**
+     * 一次性设置年龄与最大年龄,不播放动画
+     *
+     * @see LifeClockView#bind(int, int)
+     */
+    public void bind(int currentAge, int currentMaxAge) {
+        bind(currentAge, currentMaxAge, false);
+    }
+
+    /**
+     * @param animate 是否播放一段较短的指针动画
+     * @see LifeClockView#bind(int, int, boolean)
+     */
+    public void bind(int currentAge, int currentMaxAge, boolean animate) {
+        applyCurrentMaxAge(currentMaxAge);
+        applyCurrentAge(currentAge);
+        startPointerAnimation(animate ? BIND_ANIMATION_DURATION : 0);
+        publish();
+    }
+
+    public void setCurrentMaxAge(int currentMaxAge) {
+        applyCurrentMaxAge(currentMaxAge);
+        applyCurrentAge(mCurrentAge);
+        mPointerDuration = 0;
+        mAnimationGeneration++;
+        publish();
+    }
+
+    public LifeClockStyle getStyle() {
+        return mStyle;
+    }
+
+    /**
+     * 修改样式,最大年龄变化时指针直接跳到新的位置
+     */
+    public void setStyle(LifeClockStyle style) {
+        if (style == null) {
+            throw new IllegalArgumentException("style == null");
+        }
+        style.checkValid();
+        int oldDialMaxAge = mStyle.getDialMaxAge();
+        mStyle = style;
+        if (style.getDialMaxAge() != oldDialMaxAge) {
+            applyCurrentAge(mCurrentAge);
+            mPointerDuration = 0;
+            mAnimationGeneration++;
+        }
+        publish();
+    }
+
+    /**
+     * SurfaceView不透明,表盘以外的区域使用该颜色填充
+     */
+    public void setSurfaceBackgroundColor(int color) {
+        mSurfaceBackgroundColor = color;
+        publish();
+    }
+
+    /**
+     * @see LifeClockView#setStaticLayerCacheEnabled(boolean)
+     */
+    public void setStaticLayerCacheEnabled(boolean enabled) {
+        mStaticLayerCacheEnabled = enabled;
+        publish();
+    }
+
+    public boolean isStaticLayerCacheEnabled() {
+        return mStaticLayerCacheEnabled;
+    }
+
+    private void applyCurrentMaxAge(int currentMaxAge) {
+        int maxAge = currentMaxAge > LifeClockStyle.MAX_AGE ? LifeClockStyle.MAX_AGE : currentMaxAge;
+        if (maxAge != mStyle.getMaxAge()) {
+            LifeClockStyle style = mStyle.buildUpon().setMaxAge(maxAge).build();
+            // 先校验再替换,不合法时保持原样式,渲染线程不会拿到无法绘制的样式
+            style.checkValid();
+            mStyle = style;
+        }
+    }
+
+    private void applyCurrentAge(int currentAge) {
+        mCurrentAge = currentAge;
+        mPercent = DialGeometry.percent(currentAge, mStyle.getDialMaxAge());
+        mPointerFinalAngle = DialGeometry.pointerAngle(currentAge, mStyle.getDialMaxAge(), mStyle.getLabelCount());
+    }
+
+    private void startPointerAnimation(long duration) {
+        float angle = mPointerFinalAngle;
+        mPointerFromAngle = isFirstCalc ? 0 : angle - 20 < 0 ? 0 : angle - 20;
+        mPointerDuration = duration;
+        mAnimationGeneration++;
+        isFirstCalc = false;
+    }
+
+    private void publish() {
+        mClient.mState.set(new FrameState(this));
+        mRenderThread.requestFrame();
+    }
+
+    /**
+     * UI线程发布给渲染线程的不可变状态快照
+     */
+    private static final class FrameState {
+        final LifeClockStyle mStyle;
+        final int mCurrentAge;
+        final int mPercent;
+        final float mPointerFromAngle;
+        final float mPointerFinalAngle;
+        final long mPointerDuration;
+        final int mAnimationGeneration;
+        final int mBackgroundColor;
+        final boolean mStaticLayerCacheEnabled;
+        final int mWidth;
+        final int mHeight;
+
+        FrameState(LifeClockSurfaceView view) {
+            mStyle = view.mStyle;
+            mCurrentAge = view.mCurrentAge;
+            mPercent = view.mPercent;
+            mPointerFromAngle = view.mPointerFromAngle;
+            mPointerFinalAngle = view.mPointerFinalAngle;
+            mPointerDuration = view.mPointerDuration;
+            mAnimationGeneration = view.mAnimationGeneration;
+            mBackgroundColor = view.mSurfaceBackgroundColor;
+            mStaticLayerCacheEnabled = view.mStaticLayerCacheEnabled;
+            mWidth = view.mWidth;
+            mHeight = view.mHeight;
+        }
+    }
+
+    /**
+     * 渲染线程中的绘制端,除mState与mSurfaceHolder外的字段只在渲染线程中访问
+     */
+    private static final class SurfaceClient implements LifeClockRenderThread.Client {
+        final AtomicReference<FrameState> mState = new AtomicReference<>();
+        volatile SurfaceHolder mSurfaceHolder;
+
+        private final Resources mResources;
+        private LifeClockRenderer mRenderer;
+        private FrameState mDrawnState;
+        private int mAnimationGeneration = -1;
+        private boolean mAnimating;
+        private long mAnimationStartNanos;
+        private float mAnimationStartAngle;
+        private int mAnimationStartAlpha;
+
+        SurfaceClient(Resources resources) {
+            mResources = resources;
+        }
+
+        @Override
+        public boolean onRenderFrame(long frameTimeNanos) {
+            SurfaceHolder holder = mSurfaceHolder;
+            FrameState state = mState.get();
+            if (holder == null || state == null || state.mWidth == 0 || state.mHeight == 0) {
+                return false;
+            }
+            if (state == mDrawnState && !mAnimating) {
+                return false;
+            }
+            LifeClockRenderer renderer = applyState(state, frameTimeNanos);
+            advanceAnimation(renderer, state, frameTimeNanos);
+
+            Canvas canvas = Build.VERSION.SDK_INT >= Build.VERSION_CODES.M ?
+                    holder.lockHardwareCanvas() : holder.lockCanvas();
+            if (canvas == null) {
+                // Surface暂不可用,等待下一次surfaceChanged/requestFrame
+                return false;
+            }
+            try {
+                canvas.drawColor(state.mBackgroundColor);
+                int saveCount = canvas.save();
+                canvas.translate(state.mWidth / 2F, state.mHeight / 2F);
+                renderer.draw(canvas);
+                canvas.restoreToCount(saveCount);
+            } finally {
+                holder.unlockCanvasAndPost(canvas);
+            }
+            mDrawnState = state;
+            return mAnimating;
+        }
+
+        private LifeClockRenderer applyState(FrameState state, long frameTimeNanos) {
+            LifeClockRenderer renderer = mRenderer;
+            if (renderer == null) {
+                renderer = new LifeClockRenderer(mResources, state.mStyle);
+                mRenderer = renderer;
+            } else {
+                renderer.setStyle(state.mStyle);
+            }
+            if (renderer.isStaticLayerCacheEnabled() != state.mStaticLayerCacheEnabled) {
+                renderer.setStaticLayerCacheEnabled(state.mStaticLayerCacheEnabled);
+            }
+            if (renderer.getWidth() != state.mWidth || renderer.getHeight() != state.mHeight) {
+                renderer.setSize(state.mWidth, state.mHeight);
+            }
+            renderer.setCurrentAge(state.mCurrentAge);
+            if (renderer.getPercent() != state.mPercent) {
+                renderer.setPercent(state.mPercent);
+            }
+            renderer.setPointerFinalAngle(state.mPointerFinalAngle);
+            if (state.mAnimationGeneration != mAnimationGeneration) {
+                mAnimationGeneration = state.mAnimationGeneration;
+                if (state.mPointerDuration <= 0) {
+                    mAnimating = false;
+                    renderer.setPointer(state.mPointerFinalAngle, LifeClockRenderer.MAX_ALPHA);
+                } else {
+                    // 动画进行中收到新的目标时从当前角度与透明度转向新目标
+                    if (mAnimating) {
+                        mAnimationStartAngle = renderer.getPointerAngle();
+                        mAnimationStartAlpha = renderer.getPointerAlpha();
+                    } else {
+                        mAnimationStartAngle = state.mPointerFromAngle;
+                        mAnimationStartAlpha = 0;
+                    }
+                    mAnimationStartNanos = frameTimeNanos;
+                    mAnimating = true;
+                }
+            }
+            return renderer;
+        }
+
+        private void advanceAnimation(LifeClockRenderer renderer, FrameState state, long frameTimeNanos) {
+            if (!mAnimating) {
+                return;
+            }
+            float timeFraction = Math.min(1F,
+                    (frameTimeNanos - mAnimationStartNanos) / 1000000F / state.mPointerDuration);
+            // 与ValueAnimator默认的AccelerateDecelerateInterpolator一致
+            float fraction = (float) (Math.cos((timeFraction + 1) * Math.PI) / 2.0F) + 0.5F;
+            float angle = mAnimationStartAngle + (state.mPointerFinalAngle - mAnimationStartAngle) * fraction;
+            int alpha = (int) (mAnimationStartAlpha + (LifeClockRenderer.MAX_ALPHA - mAnimationStartAlpha) * timeFraction);
+            renderer.setPointer(angle, alpha);
+            if (timeFraction >= 1F) {
+                mAnimating = false;
+            }
+        }
+
+        void releaseRenderer() {
+            if (mRenderer != null) {
+                mRenderer.releaseResources();
+            }
+            mDrawnState = null;
+        }
+    }
+}
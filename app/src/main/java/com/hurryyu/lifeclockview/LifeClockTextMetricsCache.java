@@ -0,0 +1,167 @@
+package com.hurryyu.lifeclockview;
+
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.Typeface;
+import android.util.LruCache;
+
+/**
+ * 进程级的文本测量缓存
+ * <p>
+ * 缓存预先格式化好的"0%"~"100%"字符串及其宽度与高度,以及"一生已过"等固定说明文字的测量结果,
+ * 以字体、字号与屏幕密度为key,所有LifeClockView实例共享.
+ * 同一主题的时钟只在第一次使用时测量,之后百分比文本不再进行任何测量与字符串拼接.
+ * 缓存容量有限,超出后按LRU淘汰,可通过{@link #hitCount()}等方法查看命中情况.
+ */
+public final class LifeClockTextMetricsCache {
+    static final int MAX_PERCENT = 100;
+    private static final int MAX_ENTRIES = 32;
+
+    private static final String[] PERCENT_STRINGS = new String[MAX_PERCENT + 1];
+
+    static {
+        for (int i = 0; i <= MAX_PERCENT; i++) {
+            PERCENT_STRINGS[i] = i + "%";
+        }
+    }
+
+    private static final LruCache<Key, Metrics> CACHE = new LruCache<Key, Metrics>(MAX_ENTRIES) {
+        @Override
+        protected Metrics create(Key key) {
+            return Metrics.measure(key);
+        }
+    };
+
+    private LifeClockTextMetricsCache() {
+    }
+
+    /**
+     * 获取"0%"~"100%"的测量结果
+     */
+    static Metrics obtainPercent(Typeface typeface, float textSize, float density) {
+        return CACHE.get(new Key(null, typeface, textSize, density));
+    }
+
+    /**
+     * 获取单个固定文本的测量结果
+     */
+    static Metrics obtainText(String text, Typeface typeface, float textSize, float density) {
+        return CACHE.get(new Key(text, typeface, textSize, density));
+    }
+
+    /**
+     * 返回percent对应的预格式化字符串,超出[0, 100]时退化为临时拼接
+     */
+    static String percentString(int percent) {
+        if (percent < 0 || percent > MAX_PERCENT) {
+            return percent + "%";
+        }
+        return PERCENT_STRINGS[percent];
+    }
+
+    public static int hitCount() {
+        return CACHE.hitCount();
+    }
+
+    public static int missCount() {
+        return CACHE.missCount();
+    }
+
+    public static int evictionCount() {
+        return CACHE.evictionCount();
+    }
+
+    public static int size() {
+        return CACHE.size();
+    }
+
+    public static void clear() {
+        CACHE.evictAll();
+    }
+
+    /**
+     * 一组文本的测量结果,创建后不可变,可在任意线程读取
+     */
+    static final class Metrics {
+        private final String[] mTexts;
+        private final float[] mWidths;
+        private final float[] mHeights;
+
+        private Metrics(String[] texts, float[] widths, float[] heights) {
+            mTexts = texts;
+            mWidths = widths;
+            mHeights = heights;
+        }
+
+        private static Metrics measure(Key key) {
+            String[] texts = key.mText == null ? PERCENT_STRINGS : new String[]{key.mText};
+            float[] widths = new float[texts.length];
+            float[] heights = new float[texts.length];
+            Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+            paint.setTypeface(key.mTypeface);
+            paint.setTextSize(key.mTextSize);
+            Rect bounds = new Rect();
+            for (int i = 0; i < texts.length; i++) {
+                String text = texts[i];
+                paint.getTextBounds(text, 0, text.length(), bounds);
+                heights[i] = bounds.bottom - bounds.top;
+                widths[i] = paint.measureText(text);
+            }
+            return new Metrics(texts, widths, heights);
+        }
+
+        String text(int index) {
+            return mTexts[index];
+        }
+
+        float width(int index) {
+            return mWidths[index];
+        }
+
+        float height(int index) {
+            return mHeights[index];
+        }
+
+        int count() {
+            return mTexts.length;
+        }
+    }
+
+    private static final class Key {
+        private final String mText;
+        private final Typeface mTypeface;
+        private final float mTextSize;
+        private final float mDensity;
+
+        Key(String text, Typeface typeface, float textSize, float density) {
+            mText = text;
+            mTypeface = typeface;
+            mTextSize = textSize;
+            mDensity = density;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return Float.compare(key.mTextSize, mTextSize) == 0 &&
+                    Float.compare(key.mDensity, mDensity) == 0 &&
+                    (mText == null ? key.mText == null : mText.equals(key.mText)) &&
+                    (mTypeface == null ? key.mTypeface == null : mTypeface.equals(key.mTypeface));
+        }
+
+        @Override
+        public int hashCode() {
+            int result = mText != null ? mText.hashCode() : 0;
+            result = 31 * result + (mTypeface != null ? mTypeface.hashCode() : 0);
+            result = 31 * result + Float.floatToIntBits(mTextSize);
+            result = 31 * result + Float.floatToIntBits(mDensity);
+            return result;
+        }
+    }
+}
@@ -1,167 +1,89 @@
 package com.hurryyu.lifeclockview;
 
-import android.animation.ValueAnimator;
 import android.content.Context;
+import android.content.res.Configuration;
 import android.content.res.TypedArray;
-import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.graphics.Canvas;
-import android.graphics.Color;
 import android.graphics.Matrix;
-import android.graphics.Paint;
-import android.graphics.Rect;
-import android.graphics.RectF;
-import android.graphics.Typeface;
 import android.os.Build;
-import android.os.VibrationEffect;
-import android.os.Vibrator;
+import android.os.Parcel;
+import android.os.Parcelable;
 import android.util.AttributeSet;
-import android.util.TypedValue;
 import android.view.MotionEvent;
 import android.view.View;
+import android.view.ViewConfiguration;
+import android.view.ViewParent;
 
 import androidx.annotation.Nullable;
 
-import java.util.ArrayList;
-import java.util.List;
+import com.hurryyu.lifeclockview.core.DialGeometry;
 
 public class LifeClockView extends View {
     private Context mContext;
-    private int mWidth;
-    private int mHeight;
-    private Rect mTextHeightRect = new Rect();
-    private RectF mZeroAgeTipsRectF = new RectF();
-    private Matrix mMatrix = new Matrix();
     private Matrix mCanvasMatrix = new Matrix();
     private Matrix mCanvasInvertMatrix = new Matrix();
-    private List<LifeClockViewClickRectWrapper> mClickRectWrapperList = new ArrayList<>();
     private float[] mOriginalXY = new float[2];
     private float[] mInvertDownXY = new float[2];
-    private boolean mIsShowZeroAgeTips;
-
-    private OnEditClickListener mOnEditClickListener;
-
-    private static final int MAX_AGE = 120;
-
-    private static final int DEFAULT_AGE_TEXT_COLOR = Color.parseColor("#333333");
-    private static final int DEFAULT_PAST_AGE_TEXT_COLOR = Color.parseColor("#C5C5C5");
-    private static final float DEFAULT_AGE_TEXT_SIZE = 22;
-    private static final float DEFAULT_AGE_TEXT_OFFSET = 24;
-    private static final float DEFAULT_ZERO_AGE_DOWN_CIRCLE_RADIUS = 4;
-    private static final int DEFAULT_ZERO_AGE_DOWN_CIRCLE_COLOR = Color.parseColor("#F7C747");
-    private static final float DEFAULT_ZERO_AGE_DOWN_CIRCLE_OFFSET = 5;
-    private static final float DEFAULT_CENTER_CIRCLE_RADIUS = 6;
-    private static final int DEFAULT_CENTER_CIRCLE_COLOR = Color.BLACK;
-    private static final float DEFAULT_POINTER_LINE_WIDTH = 4;
-    private static final int DEFAULT_POINTER_LINE_COLOR = Color.BLACK;
-    private static final float DEFAULT_ZERO_AGE_TIPS_RECT_WIDTH = 50;
-    private static final float DEFAULT_ZERO_AGE_TIPS_RECT_HEIGHT = 20;
-    private static final int DEFAULT_ZERO_AGE_TIPS_RECT_COLOR = Color.parseColor("#F7C747");
-    private static final float DEFAULT_ZERO_AGE_TIPS_RECT_CORNERS = 12;
-    private static final float DEFAULT_ZERO_AGE_TIPS_TEXT_SIZE = 10;
-    private static final int DEFAULT_ZERO_AGE_TIPS_TEXT_COLOR = Color.WHITE;
-
-    private static final float PERCENT_STR_SIZE = 60;
-    private static final int PERCENT_STR_COLOR = Color.parseColor("#333333");
-    private static final float PERCENT_TIPS_STR_SIZE = 14;
-    private static final int PERCENT_TIPS_STR_COLOR = Color.parseColor("#C5C5C5");
-    private static final float PERCENT_STR_MARGIN_DOT = 30;
-    private static final float PERCENT_TIPS_STR_MARGIN_PERCENT_STR = 14;
-
-    private int mCurrentMaxAge = 80;
-
-    private List<String> mAgeTextList = new ArrayList<>();
-
-    private Bitmap mEditBitmap;
-
     /**
-     * 年龄文本字体颜色
+     * 绘制逻辑,见{@link LifeClockRenderer}
      */
-    private int mAgeTextColor = DEFAULT_AGE_TEXT_COLOR;
-
-    private int mPastAgeTextColor = DEFAULT_PAST_AGE_TEXT_COLOR;
+    private LifeClockRenderer mRenderer;
     /**
-     * 年龄文本字体大小
+     * 实时模式(根据出生时间戳与寿命计算进度),未开启时为null
      */
-    private float mAgeTextSize = sp2px(DEFAULT_AGE_TEXT_SIZE);
+    private LifeClockLiveProgress mLiveProgress;
     /**
-     * 年龄文本中心点与外圆的偏移量
+     * 实时模式下最近一次绘制的指针角度,NaN表示尚未绘制
      */
-    private float mAgeTextOffset = dp2px(DEFAULT_AGE_TEXT_OFFSET);
-
+    private float mLiveDrawnAngle = Float.NaN;
+    private int mLivePercent = -1;
     /**
-     * 0岁年龄下方圆圈的半径
+     * 按预期寿命开启实时模式时的预期寿命(年),此时指针按实际年龄指向年龄文本;NaN表示寿命对应表盘完整一圈
      */
-    private float mZeroAgeDownCircleRadius = dp2px(DEFAULT_ZERO_AGE_DOWN_CIRCLE_RADIUS);
+    private float mLiveExpectedAge = Float.NaN;
 
+    private OnEditClickListener mOnEditClickListener;
+    private OnPointerAnimationListener mOnPointerAnimationListener;
     /**
-     * 0岁年龄下方圆圈颜色
+     * 绘制统计,未设置OnFrameMetricsListener时为null
      */
-    private int mZeroAgeDownCircleColor = DEFAULT_ZERO_AGE_DOWN_CIRCLE_COLOR;
-
+    private LifeClockMetricsRecorder mMetricsRecorder;
     /**
-     * 圆圈偏移量
+     * 拖动指针选择年龄,未开启时为null
      */
-    private float mZeroAgeDownCircleOffset = dp2px(DEFAULT_ZERO_AGE_DOWN_CIRCLE_OFFSET);
-
+    private LifeClockScrubber mScrubber;
+    private OnAgeScrubListener mOnAgeScrubListener;
     /**
-     * 中心圆点半径
+     * 开始拖动前的年龄与实时模式,拖动被取消时恢复
      */
-    private float mCenterCircleRadius = dp2px(DEFAULT_CENTER_CIRCLE_RADIUS);
+    private int mScrubStartAge;
+    private boolean mScrubStartLive;
+    private float[] mSampleXY = new float[2];
 
-    /**
-     * 中心圆点颜色
-     */
-    private int mCenterCircleColor = DEFAULT_CENTER_CIRCLE_COLOR;
+    private static final int MAX_AGE = LifeClockStyle.MAX_AGE;
 
-    /**
-     * 指针宽度
-     */
-    private float mPointerLineWidth = dp2px(DEFAULT_POINTER_LINE_WIDTH);
+    private static final long POINTER_ANIMATION_DURATION = 1500;
+    private static final long BIND_ANIMATION_DURATION = 300;
 
     /**
-     * 指针颜色
+     * 实时模式下指针末端位移小于该值(px)时不重绘
      */
-    private int mPointerLineColor = DEFAULT_POINTER_LINE_COLOR;
+    private static final float LIVE_POINTER_MOVE_THRESHOLD = 0.5F;
 
     /**
-     * 出生日说明矩形区域颜色
+     * 复用的指针动画,见{@link LifeClockPointerAnimator}
      */
-    private int mZeroAgeTipsRectColor = DEFAULT_ZERO_AGE_TIPS_RECT_COLOR;
-
+    private LifeClockPointerAnimator mPointerAnimator;
     /**
-     * 指针角度(此值会变动[属性动画]),必须>0才会绘制指针,可通过设置mCurrentAge从而自动计算角度
+     * 根据可见性与省电模式决定是否播放动画,见{@link LifeClockRenderPolicy}
      */
-    private float mPointerLineAngle;
-
-    /**
-     * 最终指针角度
-     */
-    private float mPointerLineAngleFinal;
-    /**
-     * 一生已过的百分比
-     */
-    private String mPercentStr;
-
-    private int mPointerLineAndPercentAlpha;
+    private LifeClockRenderPolicy mRenderPolicy;
 
     /**
      * 是否是第一次计算指针角度
      */
     private boolean isFirstCalc = true;
 
-    /**
-     * 当前实际年龄
-     */
-    private int mCurrentAge;
-
-    private Paint mAgeTextPaint;
-    private Paint mZeroAgeDownCirclePaint;
-    private Paint mCenterCirclePaint;
-    private Paint mPointerLinePaint;
-    private Paint mPercentTextPaint;
-    private Paint mZeroAgeTipsPaint;
-
     public LifeClockView(Context context) {
         this(context, null);
     }
@@ -178,57 +100,51 @@ public class LifeClockView extends View {
     }
 
     private void initAttrs(AttributeSet attrs) {
+        mRenderer = new LifeClockRenderer(getResources(), LifeClockStyle.obtain(mContext, attrs));
         if (attrs == null) {
             return;
         }
         TypedArray typedArray = mContext.obtainStyledAttributes(attrs, R.styleable.LifeClockView);
-        mAgeTextColor = typedArray.getColor(R.styleable.LifeClockView_lcv_age_text_color, DEFAULT_AGE_TEXT_COLOR);
-        mPastAgeTextColor = typedArray.getColor(R.styleable.LifeClockView_lcv_past_age_text_color, DEFAULT_PAST_AGE_TEXT_COLOR);
-        mAgeTextSize = typedArray.getDimension(R.styleable.LifeClockView_lcv_age_text_size, sp2px(DEFAULT_AGE_TEXT_SIZE));
-        mAgeTextOffset = typedArray.getDimension(R.styleable.LifeClockView_lcv_age_text_offset, dp2px(DEFAULT_AGE_TEXT_OFFSET));
-        mZeroAgeDownCircleRadius = typedArray.getDimension(R.styleable.LifeClockView_lcv_zero_age_down_circle_radius, dp2px(DEFAULT_ZERO_AGE_DOWN_CIRCLE_RADIUS));
-        mZeroAgeDownCircleColor = typedArray.getColor(R.styleable.LifeClockView_lcv_zero_age_down_circle_color, DEFAULT_ZERO_AGE_DOWN_CIRCLE_COLOR);
-        mZeroAgeDownCircleOffset = typedArray.getDimension(R.styleable.LifeClockView_lcv_zero_age_down_circle_offset, dp2px(DEFAULT_ZERO_AGE_DOWN_CIRCLE_OFFSET));
-        mCenterCircleRadius = typedArray.getDimension(R.styleable.LifeClockView_lcv_center_circle_radius, dp2px(DEFAULT_CENTER_CIRCLE_RADIUS));
-        mCenterCircleColor = typedArray.getColor(R.styleable.LifeClockView_lcv_center_circle_color, DEFAULT_CENTER_CIRCLE_COLOR);
-        mPointerLineWidth = typedArray.getDimension(R.styleable.LifeClockView_lcv_pointer_line_width, dp2px(DEFAULT_POINTER_LINE_WIDTH));
-        mPointerLineColor = typedArray.getColor(R.styleable.LifeClockView_lcv_pointer_line_color, DEFAULT_POINTER_LINE_COLOR);
-        int tempMaxAge = typedArray.getInt(R.styleable.LifeClockView_lcv_current_max_age, 80);
-        mCurrentMaxAge = tempMaxAge > MAX_AGE ? MAX_AGE : tempMaxAge;
+        mRenderer.setStaticLayerCacheEnabled(typedArray.getBoolean(R.styleable.LifeClockView_lcv_static_layer_cache, false));
         typedArray.recycle();
     }
 
     private void init() {
-        mEditBitmap = BitmapFactory.decodeResource(getResources(), R.drawable.ic_edit);
-        generateAgeText();
-        mAgeTextPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        mAgeTextPaint.setColor(mAgeTextColor);
-        mAgeTextPaint.setTextSize(mAgeTextSize);
-        mAgeTextPaint.setTypeface(Typeface.DEFAULT_BOLD);
-
-        mZeroAgeDownCirclePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        mZeroAgeDownCirclePaint.setStyle(Paint.Style.FILL_AND_STROKE);
-        mZeroAgeDownCirclePaint.setColor(mZeroAgeDownCircleColor);
-
-        mCenterCirclePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        mCenterCirclePaint.setStyle(Paint.Style.FILL_AND_STROKE);
-        mCenterCirclePaint.setColor(mCenterCircleColor);
-
-        mPointerLinePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        mPointerLinePaint.setStyle(Paint.Style.FILL_AND_STROKE);
-        mPointerLinePaint.setStrokeWidth(mPointerLineWidth);
-        mPointerLinePaint.setColor(mPointerLineColor);
-        mPointerLinePaint.setStrokeCap(Paint.Cap.ROUND);
-
-        mPercentTextPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-
-        mZeroAgeTipsPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-    }
+        mRenderPolicy = new LifeClockRenderPolicy(mContext);
+        mPointerAnimator = new LifeClockPointerAnimator(this, new LifeClockPointerAnimator.Target() {
+            @Override
+            public void onPointerFrame(float angle, int alpha) {
+                if (mRenderer.setPointerFrame(angle, alpha)) {
+                    invalidate();
+                } else {
+                    invalidatePointerLayer();
+                    if (mMetricsRecorder != null) {
+                        mMetricsRecorder.onPointerLayerFrame();
+                    }
+                }
+            }
+        });
+        mPointerAnimator.setListener(new OnPointerAnimationListener() {
+            @Override
+            public void onPointerAnimationStart() {
+                if (mMetricsRecorder != null) {
+                    mMetricsRecorder.onAnimationStart();
+                }
+                if (mOnPointerAnimationListener != null) {
+                    mOnPointerAnimationListener.onPointerAnimationStart();
+                }
+            }
 
-    private void generateAgeText() {
-        for (int i = 0; i <= mCurrentMaxAge; i += 5) {
-            mAgeTextList.add(String.valueOf(i));
-        }
+            @Override
+            public void onPointerAnimationEnd(boolean canceled) {
+                if (mMetricsRecorder != null) {
+                    mMetricsRecorder.onAnimationEnd(canceled);
+                }
+                if (mOnPointerAnimationListener != null) {
+                    mOnPointerAnimationListener.onPointerAnimationEnd(canceled);
+                }
+            }
+        });
     }
 
     @Override
@@ -241,141 +157,31 @@ public class LifeClockView extends View {
 
     @Override
     protected void onDraw(Canvas canvas) {
+        LifeClockMetricsRecorder recorder = mMetricsRecorder;
+        long startNanos = recorder == null ? 0 : System.nanoTime();
         canvas.setMatrix(mCanvasMatrix);
-        mClickRectWrapperList.clear();
-
-        drawAgeText(canvas);
-        drawZeroAgeDownDot(canvas);
-        if (mPointerLineAngleFinal > 0) {
-            drawCenterCircle(canvas);
-            drawPointerLine(canvas);
-
-            if (mPointerLineAngleFinal > 90 && mPointerLineAngleFinal < 270) {
-                drawPercent(canvas, false);
-            } else {
-                drawPercent(canvas, true);
-            }
+        mRenderer.draw(canvas);
+        if (recorder != null) {
+            recorder.onDraw(System.nanoTime() - startNanos, mRenderer.getContentVersion());
         }
     }
 
-    private void drawPercent(Canvas canvas, boolean isDrawDown) {
-        mPercentTextPaint.setTextSize(sp2px(PERCENT_STR_SIZE));
-        mPercentTextPaint.setColor(PERCENT_STR_COLOR);
-        mPercentTextPaint.setTypeface(Typeface.DEFAULT_BOLD);
-        mPercentTextPaint.getTextBounds(mPercentStr, 0, mPercentStr.length(), mTextHeightRect);
-        float percentHeight = mTextHeightRect.bottom - mTextHeightRect.top;
-        float percentStrMarginDot = dp2px(PERCENT_STR_MARGIN_DOT);
-        float percentTipsStrMarginPercentStr = dp2px(PERCENT_TIPS_STR_MARGIN_PERCENT_STR);
-        mPercentTextPaint.setAlpha(mPointerLineAndPercentAlpha);
-        canvas.drawText(mPercentStr,
-                -mPercentTextPaint.measureText(mPercentStr) / 2F,
-                isDrawDown ?
-                        percentHeight + percentStrMarginDot :
-                        -percentStrMarginDot,
-                mPercentTextPaint);
-
-        mPercentTextPaint.setTextSize(sp2px(PERCENT_TIPS_STR_SIZE));
-        mPercentTextPaint.setColor(PERCENT_TIPS_STR_COLOR);
-        mPercentTextPaint.setTypeface(Typeface.DEFAULT);
-        String percentTipsStr = "一生已过";
-        mPercentTextPaint.getTextBounds(percentTipsStr, 0, percentTipsStr.length(), mTextHeightRect);
-        float percentTipsHeight = mTextHeightRect.bottom - mTextHeightRect.top;
-        mPercentTextPaint.setAlpha(mPointerLineAndPercentAlpha);
-        canvas.drawText(percentTipsStr,
-                -mPercentTextPaint.measureText(percentTipsStr) / 2F,
-                isDrawDown ?
-                        percentHeight + percentStrMarginDot + percentTipsStrMarginPercentStr + percentTipsHeight
-                        : -percentStrMarginDot - percentHeight - percentTipsStrMarginPercentStr,
-                mPercentTextPaint);
-    }
-
-    private void drawPointerLine(Canvas canvas) {
-        mPointerLinePaint.setAlpha(mPointerLineAndPercentAlpha);
-        canvas.save();
-        canvas.translate(0, dp2px(15));
-        canvas.rotate(mPointerLineAngle, 0, -dp2px(15));
-        canvas.drawLine(0, 0, 0, -mHeight / 2F - dp2px(18) + mAgeTextOffset, mPointerLinePaint);
-        canvas.restore();
-    }
-
-    private void drawCenterCircle(Canvas canvas) {
-        mCenterCirclePaint.setAlpha(mPointerLineAndPercentAlpha);
-        canvas.drawCircle(0, 0, mCenterCircleRadius, mCenterCirclePaint);
-    }
-
-    private void drawAgeText(Canvas canvas) {
-        float angle = 360F / mAgeTextList.size();
-        float ageTextCircleRadius = mWidth / 2F - mAgeTextOffset;
-        for (int i = 0; i < mAgeTextList.size(); i++) {
-            String ageText = mAgeTextList.get(i);
-            if (Integer.parseInt(ageText) > mCurrentAge) {
-                mAgeTextPaint.setColor(mAgeTextColor);
-            } else {
-                mAgeTextPaint.setColor(mPastAgeTextColor);
-            }
-            float x = ageTextCircleRadius * (float) Math.sin(angle * Math.PI / 180 * i) - mAgeTextPaint.measureText(ageText) / 2F;
-            Paint.FontMetrics fontMetrics = mAgeTextPaint.getFontMetrics();
-            float offsetY = (fontMetrics.top + fontMetrics.bottom) / 2F;
-            float y = -ageTextCircleRadius * (float) Math.cos(angle * Math.PI / 180 * i) - offsetY;
-            canvas.drawText(ageText, x, y, mAgeTextPaint);
-            if (i == mAgeTextList.size() - 1) {
-                int bitmapHeight = mEditBitmap.getHeight();
-                float textHeight = fontMetrics.bottom - fontMetrics.top;
-                float textWidth = mAgeTextPaint.measureText(ageText);
-                float scaleValue = textHeight / 3 / bitmapHeight;
-                mMatrix.reset();
-                mMatrix.postScale(scaleValue, scaleValue);
-                mMatrix.postTranslate(x + textWidth, y - textHeight / 3);
-                canvas.drawBitmap(mEditBitmap, mMatrix, null);
-
-                RectF clickRectF = new RectF(x, y + fontMetrics.bottom - textHeight, x + textWidth, y + fontMetrics.bottom);
-                mClickRectWrapperList.add(new LifeClockViewClickRectWrapper(clickRectF, LifeClockViewClickRectWrapper.Type.EDIT));
-            }
-        }
-    }
-
-    private void drawZeroAgeDownDot(Canvas canvas) {
-        mAgeTextPaint.getTextBounds(mAgeTextList.get(0), 0, 1, mTextHeightRect);
-        float circleCenterX = 0;
-        float circleCenterY = -mHeight / 2F + mAgeTextOffset +
-                (mTextHeightRect.bottom - mTextHeightRect.top) / 2F +
-                mZeroAgeDownCircleRadius +
-                mZeroAgeDownCircleOffset;
-
-        canvas.drawCircle(circleCenterX, circleCenterY, mZeroAgeDownCircleRadius, mZeroAgeDownCirclePaint);
-
-        // 出生日说明矩形区域宽度
-        float zeroAgeTipsRectWidth = dp2px(DEFAULT_ZERO_AGE_TIPS_RECT_WIDTH);
-        // 出生日说明矩形区域高度
-        float zeroAgeTipsRectHeight = dp2px(DEFAULT_ZERO_AGE_TIPS_RECT_HEIGHT);
-        if (mIsShowZeroAgeTips) {
-            mZeroAgeTipsPaint.setStyle(Paint.Style.FILL_AND_STROKE);
-            mZeroAgeTipsPaint.setColor(mZeroAgeTipsRectColor);
-            mZeroAgeTipsRectF.left = circleCenterX - zeroAgeTipsRectWidth / 2F;
-            mZeroAgeTipsRectF.top = circleCenterY - mZeroAgeDownCircleRadius - zeroAgeTipsRectHeight;
-            mZeroAgeTipsRectF.right = circleCenterX + zeroAgeTipsRectWidth / 2F;
-            mZeroAgeTipsRectF.bottom = circleCenterY - mZeroAgeDownCircleRadius;
-            float zeroAgeTipsRectCorners = dp2px(DEFAULT_ZERO_AGE_TIPS_RECT_CORNERS);
-            canvas.drawRoundRect(mZeroAgeTipsRectF, zeroAgeTipsRectCorners, zeroAgeTipsRectCorners, mZeroAgeTipsPaint);
-
-            mZeroAgeTipsPaint.setStyle(Paint.Style.FILL);
-            mZeroAgeTipsPaint.setColor(DEFAULT_ZERO_AGE_TIPS_TEXT_COLOR);
-
-            // 出生日说明文字大小
-            mZeroAgeTipsPaint.setTextSize(sp2px(DEFAULT_ZERO_AGE_TIPS_TEXT_SIZE));
-            mZeroAgeTipsPaint.setTextAlign(Paint.Align.CENTER);
-            Paint.FontMetrics fontMetrics = mZeroAgeTipsPaint.getFontMetrics();
-            float offset = (fontMetrics.bottom + fontMetrics.top) / 2F;
-            float baseLineY = mZeroAgeTipsRectF.centerY() - offset;
-            String zeroAgeTipsText = "出生日";
-            canvas.drawText(zeroAgeTipsText, mZeroAgeTipsRectF.centerX(), baseLineY, mZeroAgeTipsPaint);
+    /**
+     * 只修改了指针层RenderNode的属性,自身的显示列表不变,不需要执行onDraw.
+     * 重绘父View只会重新录制父View自身的内容(子View的显示列表直接复用),
+     * 从而请求下一帧,让RenderThread同步新的属性.
+     * <p>
+     * 只在{@link LifeClockRenderer#setPointerFrame(float, int)}返回false,即上一帧通过RenderNode绘制了指针层时调用,
+     * 软件绘制与低版本系统始终走invalidate.代价是动画期间父View的显示列表每帧都要重新录制,
+     * 父View自身绘制很重时(例如RecyclerView中复杂的列表项根布局)这部分开销不能忽略
+     */
+    private void invalidatePointerLayer() {
+        ViewParent parent = getParent();
+        if (parent instanceof View) {
+            ((View) parent).invalidate();
+        } else {
+            invalidate();
         }
-
-        RectF rectF = new RectF(circleCenterX - zeroAgeTipsRectWidth / 2F,
-                circleCenterY - mZeroAgeDownCircleRadius - zeroAgeTipsRectHeight,
-                circleCenterX + zeroAgeTipsRectWidth / 2F,
-                circleCenterY + mZeroAgeDownCircleRadius + dp2px(10));
-        mClickRectWrapperList.add(new LifeClockViewClickRectWrapper(rectF, LifeClockViewClickRectWrapper.Type.ZERO_CIRCLE));
     }
 
     @Override
@@ -385,102 +191,774 @@ public class LifeClockView extends View {
 
     @Override
     public boolean onTouchEvent(MotionEvent event) {
+        LifeClockScrubber scrubber = mScrubber;
         switch (event.getAction()) {
             case MotionEvent.ACTION_DOWN:
+                mOriginalXY[0] = event.getX();
+                mOriginalXY[1] = event.getY();
+                if (scrubber != null) {
+                    // 只有按在指针或年龄文本圆环上时才开始拖动,其他位置的滑动仍由父View处理
+                    mCanvasInvertMatrix.mapPoints(mInvertDownXY, mOriginalXY);
+                    LifeClockStyle style = mRenderer.getStyle();
+                    LifeClockDialLayout layout = mRenderer.ensureDialLayout();
+                    scrubber.setGrabArea(-(layout.mPointerLinePivotOffset + layout.mPointerLineEndY),
+                            getWidth() / 2F - style.getAgeTextOffset(), layout.mScrubGrabHalfWidth);
+                    scrubber.begin(mInvertDownXY[0], mInvertDownXY[1], style.getDialMaxAge(), style.getLabelCount(),
+                            mRenderer.getPointerAngle());
+                }
+                break;
             case MotionEvent.ACTION_MOVE:
                 mOriginalXY[0] = event.getX();
                 mOriginalXY[1] = event.getY();
+                if (scrubber != null) {
+                    // 依次处理批量的历史采样点,所有采样点处理完后只重绘一次
+                    int historySize = event.getHistorySize();
+                    for (int i = 0; i < historySize; i++) {
+                        addScrubSample(scrubber, event.getHistoricalX(i), event.getHistoricalY(i));
+                    }
+                    addScrubSample(scrubber, event.getX(), event.getY());
+                    scrubber.flush();
+                }
+                break;
+            case MotionEvent.ACTION_CANCEL:
+                if (scrubber != null) {
+                    scrubber.end(true);
+                }
                 break;
             case MotionEvent.ACTION_UP:
+                if (scrubber != null && scrubber.end(false)) {
+                    break;
+                }
                 performClick();
-                mCanvasInvertMatrix.reset();
-                mCanvasMatrix.invert(mCanvasInvertMatrix);
+                LifeClockDialLayout layout = mRenderer.ensureDialLayout();
                 mCanvasInvertMatrix.mapPoints(mInvertDownXY, mOriginalXY);
-                for (LifeClockViewClickRectWrapper rectWrapper : mClickRectWrapperList) {
-                    if (rectWrapper.getRect().contains(mInvertDownXY[0], mInvertDownXY[1])) {
-                        if (rectWrapper.getType() == LifeClockViewClickRectWrapper.Type.EDIT &&
-                                mOnEditClickListener != null) {
-                            mOnEditClickListener.onClick();
-                        } else if (rectWrapper.getType() == LifeClockViewClickRectWrapper.Type.ZERO_CIRCLE) {
-                            mIsShowZeroAgeTips = !mIsShowZeroAgeTips;
-                            if (mIsShowZeroAgeTips) {
-                                vibrate(50);
-                            }
-                            invalidate();
-                        }
+                int region = layout.mHitRegions.hitTest(mInvertDownXY[0], mInvertDownXY[1]);
+                if (region == LifeClockDialLayout.HIT_EDIT && mOnEditClickListener != null) {
+                    mOnEditClickListener.onClick();
+                } else if (region == LifeClockDialLayout.HIT_ZERO_CIRCLE) {
+                    boolean showZeroAgeTips = !mRenderer.isShowZeroAgeTips();
+                    mRenderer.setShowZeroAgeTips(showZeroAgeTips);
+                    if (showZeroAgeTips) {
+                        vibrate(50);
                     }
+                    invalidate();
                 }
                 break;
         }
         return true;
     }
 
+    private void addScrubSample(LifeClockScrubber scrubber, float x, float y) {
+        mSampleXY[0] = x;
+        mSampleXY[1] = y;
+        mCanvasInvertMatrix.mapPoints(mSampleXY);
+        scrubber.addSample(mSampleXY[0], mSampleXY[1]);
+    }
+
     @Override
     protected void onSizeChanged(int w, int h, int oldw, int oldh) {
         super.onSizeChanged(w, h, oldw, oldh);
-        mWidth = w;
-        mHeight = h;
-        mCanvasMatrix.postTranslate(mWidth / 2F, mHeight / 2F);
+        // setTranslate会覆盖之前的平移,多次尺寸变化不会累加偏移
+        mCanvasMatrix.setTranslate(w / 2F, h / 2F);
+        mCanvasInvertMatrix.reset();
+        mCanvasMatrix.invert(mCanvasInvertMatrix);
+        mRenderer.setSize(w, h);
+    }
+
+    /**
+     * 保存年龄、最大年龄、指针最终角度、出生日说明与实时模式,动画进行中保存时只保存最终状态
+     */
+    @Override
+    protected Parcelable onSaveInstanceState() {
+        SavedState state = new SavedState(super.onSaveInstanceState());
+        state.mCurrentAge = mRenderer.getCurrentAge();
+        state.mMaxAge = mRenderer.getStyle().getMaxAge();
+        state.mPointerFinalAngle = mRenderer.getPointerFinalAngle();
+        state.mPointerShown = !isFirstCalc || mPointerAnimator.isActive();
+        state.mShowZeroAgeTips = mRenderer.isShowZeroAgeTips();
+        if (mLiveProgress != null && mLiveProgress.isEnabled()) {
+            state.mLiveProgress = true;
+            state.mBirthTimeMillis = mLiveProgress.getBirthTimeMillis();
+            state.mLifeSpanMillis = mLiveProgress.getLifeSpanMillis();
+            state.mLiveExpectedAge = mLiveExpectedAge;
+        }
+        return state;
+    }
+
+    /**
+     * 直接显示保存时的最终状态,不播放动画、不振动.
+     * 恢复发生在第一次布局之前,最大年龄与保存时不同也只会布局一次
+     */
+    @Override
+    protected void onRestoreInstanceState(Parcelable state) {
+        if (!(state instanceof SavedState)) {
+            super.onRestoreInstanceState(state);
+            return;
+        }
+        SavedState savedState = (SavedState) state;
+        super.onRestoreInstanceState(savedState.getSuperState());
+        mPointerAnimator.cancel();
+        applyCurrentMaxAge(savedState.mMaxAge);
+        mRenderer.setShowZeroAgeTips(savedState.mShowZeroAgeTips);
+        if (savedState.mLiveProgress) {
+            startLifeProgress(savedState.mBirthTimeMillis, savedState.mLifeSpanMillis, savedState.mLiveExpectedAge);
+            return;
+        }
+        stopLifeProgress();
+        applyCurrentAge(savedState.mCurrentAge);
+        mRenderer.setPointerFinalAngle(savedState.mPointerFinalAngle);
+        if (savedState.mPointerShown) {
+            snapPointerToFinal();
+        } else {
+            invalidate();
+        }
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+        mRenderPolicy.setAttached(true);
+        onRenderActiveChanged();
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        mRenderPolicy.setAttached(false);
+        onRenderActiveChanged();
+        mRenderer.releaseResources();
+    }
+
+    /**
+     * 自身、父View或窗口的可见性变化(API 24及以上)
+     */
+    @Override
+    public void onVisibilityAggregated(boolean isVisible) {
+        super.onVisibilityAggregated(isVisible);
+        if (mRenderPolicy.setVisible(isVisible)) {
+            onRenderActiveChanged();
+        }
+    }
+
+    @Override
+    protected void onVisibilityChanged(View changedView, int visibility) {
+        super.onVisibilityChanged(changedView, visibility);
+        updateVisibilityCompat();
+    }
+
+    @Override
+    protected void onWindowVisibilityChanged(int visibility) {
+        super.onWindowVisibilityChanged(visibility);
+        updateVisibilityCompat();
+    }
+
+    /**
+     * API 24以下没有onVisibilityAggregated,根据isShown与窗口可见性计算
+     */
+    private void updateVisibilityCompat() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N || mRenderPolicy == null) {
+            return;
+        }
+        if (mRenderPolicy.setVisible(isShown() && getWindowVisibility() == VISIBLE)) {
+            onRenderActiveChanged();
+        }
+    }
+
+    /**
+     * 不可见时跳过尚未结束的指针动画并暂停实时模式,重新可见时只恢复实时模式,不会重新播放动画
+     */
+    private void onRenderActiveChanged() {
+        if (mRenderPolicy.isActive()) {
+            if (mLiveProgress != null) {
+                mLiveProgress.start();
+            }
+            return;
+        }
+        if (mPointerAnimator.isActive()) {
+            mPointerAnimator.cancel();
+            snapPointerToFinal();
+        }
+        if (mLiveProgress != null) {
+            mLiveProgress.pause();
+        }
+    }
+
+    @Override
+    protected void onConfigurationChanged(Configuration newConfig) {
+        super.onConfigurationChanged(newConfig);
+        if (mRenderer.onDisplayMetricsChanged(getResources().getDisplayMetrics())) {
+            invalidate();
+        }
+    }
+
+    /**
+     * 开启实时模式:根据出生时间戳与寿命实时计算指针角度、百分比以及精确到秒的剩余时间,
+     * 只有在指针位移超过亚像素阈值或显示的数字发生变化时才会重绘
+     *
+     * @param birthTimeMillis 出生时间戳(毫秒)
+     * @param lifeSpanMillis  寿命(毫秒),对应表盘的完整一圈
+     */
+    public void startLifeProgress(long birthTimeMillis, long lifeSpanMillis) {
+        startLifeProgress(birthTimeMillis, lifeSpanMillis, Float.NaN);
+    }
+
+    /**
+     * 按{@link LifeExpectancy}估算的预期寿命开启实时模式:表盘最大年龄取{@link LifeExpectancy.Estimate#getMaxAge()},
+     * 指针按实际年龄指向对应的年龄文本,百分比为已过时间占预期寿命的比例
+     *
+     * @param birthTimeMillis 出生时间戳(毫秒)
+     */
+    public void startLifeProgress(long birthTimeMillis, LifeExpectancy.Estimate estimate) {
+        if (estimate == null) {
+            throw new IllegalArgumentException("estimate == null");
+        }
+        applyCurrentMaxAge(estimate.getMaxAge());
+        startLifeProgress(birthTimeMillis, estimate.getLifeSpanMillis(), estimate.getExpectedAge());
+    }
+
+    private void startLifeProgress(long birthTimeMillis, long lifeSpanMillis, float expectedAge) {
+        if (lifeSpanMillis <= 0) {
+            throw new IllegalArgumentException("lifeSpanMillis must be > 0, was " + lifeSpanMillis);
+        }
+        if (mLiveProgress == null) {
+            mLiveProgress = new LifeClockLiveProgress(new LifeClockLiveProgress.Listener() {
+                @Override
+                public void onLiveProgressUpdated(boolean readoutChanged) {
+                    applyLiveProgress(readoutChanged);
+                }
+            });
+        }
+        mLiveProgress.pause();
+        mPointerAnimator.cancel();
+        mLiveProgress.setLifeSpan(birthTimeMillis, lifeSpanMillis);
+        mLiveExpectedAge = expectedAge;
+        mLiveDrawnAngle = Float.NaN;
+        mLivePercent = -1;
+        mRenderer.setReadout(mLiveProgress.mReadout, 0);
+        mRenderer.setPointer(mRenderer.getPointerAngle(), LifeClockRenderer.MAX_ALPHA);
+        isFirstCalc = false;
+        mLiveProgress.update(System.currentTimeMillis());
+        if (mRenderPolicy.isActive()) {
+            mLiveProgress.start();
+        }
+    }
+
+    /**
+     * 退出实时模式,指针停留在当前位置
+     */
+    public void stopLifeProgress() {
+        if (mLiveProgress != null && mLiveProgress.isEnabled()) {
+            mLiveProgress.stop();
+            mRenderer.setReadout(null, 0);
+            invalidate();
+        }
+    }
+
+    private void applyLiveProgress(boolean readoutChanged) {
+        LifeClockLiveProgress progress = mLiveProgress;
+        boolean changed = readoutChanged;
+        if (readoutChanged) {
+            mRenderer.setReadout(progress.mReadout, progress.mReadoutLength);
+        }
+        int percent = (int) (progress.mRatio * 100);
+        if (percent != mLivePercent) {
+            mLivePercent = percent;
+            mRenderer.setPercent(percent);
+            changed = true;
+        }
+        if (progress.mAgeYears != mRenderer.getCurrentAge()) {
+            mRenderer.setCurrentAge(progress.mAgeYears);
+            changed = true;
+        }
+        float ratio = progress.mRatio;
+        if (!Float.isNaN(mLiveExpectedAge)) {
+            // 已过比例换算为实际年龄在表盘上的位置
+            ratio = Math.min(1F, ratio * mLiveExpectedAge / mRenderer.getStyle().getDialMaxAge());
+        }
+        float angle = mRenderer.getSweepAngle() * ratio;
+        float pointerLength = -mRenderer.ensureDialLayout().mPointerLineEndY;
+        if (Float.isNaN(mLiveDrawnAngle) ||
+                Math.abs(angle - mLiveDrawnAngle) * (float) Math.PI / 180F * pointerLength >= LIVE_POINTER_MOVE_THRESHOLD) {
+            mLiveDrawnAngle = angle;
+            mRenderer.setPointer(angle, LifeClockRenderer.MAX_ALPHA);
+            mRenderer.setPointerFinalAngle(angle);
+            changed = true;
+        }
+        if (changed) {
+            invalidate();
+        }
     }
 
     public void setCurrentAge(int currentAge) {
-        // TODO: 2020/2/12 这里应该根据时间戳来计算比例和角度;在此为了方便,直接用年龄计算
+        // 以整数年龄计算比例和角度,需要根据时间戳实时计算时请使用startLifeProgress
+        stopLifeProgress();
         vibrate(50);
-        this.mCurrentAge = currentAge;
-        float percent = currentAge / Float.parseFloat(mAgeTextList.get(mAgeTextList.size() - 1));
-        mPercentStr = (int) (percent * 100) + "%";
-        // 需要减去最后一段(比如0~80,需要忽略80~0的角度)
-        float angle = (360 - 360F / mAgeTextList.size()) * percent;
-        this.mPointerLineAngleFinal = angle;
+        applyCurrentAge(currentAge);
+        startPointerAnimation(POINTER_ANIMATION_DURATION);
+    }
+
+    /**
+     * 一次性设置年龄与最大年龄,适用于RecyclerView等需要频繁绑定数据的场景:
+     * 不会振动,最大年龄不变时不会重新生成年龄文本,未attach到窗口时直接显示最终状态
+     */
+    public void bind(int currentAge, int currentMaxAge) {
+        bind(currentAge, currentMaxAge, false);
+    }
+
+    /**
+     * @param animate 是否播放一段较短的指针动画,未attach到窗口时忽略
+     * @see #bind(int, int)
+     */
+    public void bind(int currentAge, int currentMaxAge, boolean animate) {
+        stopLifeProgress();
+        mPointerAnimator.cancel();
+        applyCurrentMaxAge(currentMaxAge);
+        applyCurrentAge(currentAge);
+        if (animate && isAttachedToWindow() && mRenderPolicy.canAnimate()) {
+            startPointerAnimation(BIND_ANIMATION_DURATION);
+        } else {
+            snapPointerToFinal();
+        }
+    }
+
+    /**
+     * 根据年龄计算百分比与指针最终角度,不启动动画
+     */
+    private void applyCurrentAge(int currentAge) {
+        mRenderer.applyAge(currentAge);
+    }
+
+    /**
+     * 从当前状态动画到mPointerLineAngleFinal,动画进行中时会平滑地转向新的目标角度;
+     * 不可见或省电模式下直接显示最终状态
+     */
+    private void startPointerAnimation(long duration) {
+        if (!mRenderPolicy.canAnimate()) {
+            mPointerAnimator.cancel();
+            snapPointerToFinal();
+            return;
+        }
+        float angle = mRenderer.getPointerFinalAngle();
         float animStartAngle = isFirstCalc ? 0 : angle - 20 < 0 ? 0 : angle - 20;
-        ValueAnimator valueAnimator = ValueAnimator.ofFloat(animStartAngle, angle);
-        valueAnimator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
-            @Override
-            public void onAnimationUpdate(ValueAnimator animation) {
-                mPointerLineAngle = (float) animation.getAnimatedValue();
-                mPointerLineAndPercentAlpha = (int) (255 * ((float) animation.getCurrentPlayTime() / (float) animation.getDuration()));
-                // animation.getCurrentPlayTime()的值可能超出总时间
-                if (mPointerLineAndPercentAlpha > 255) {
-                    mPointerLineAndPercentAlpha = 255;
-                }
-                invalidate();
-            }
-        });
+        mPointerAnimator.animateTo(animStartAngle, angle, duration);
+        this.isFirstCalc = false;
+    }
 
-        valueAnimator.setDuration(1500);
-        valueAnimator.start();
+    /**
+     * 跳过动画,直接显示指针的最终状态
+     */
+    private void snapPointerToFinal() {
+        mRenderer.setPointer(mRenderer.getPointerFinalAngle(), LifeClockRenderer.MAX_ALPHA);
         this.isFirstCalc = false;
+        invalidate();
     }
 
+    /**
+     * 振动是对用户操作的一次性反馈,不受可见性与省电模式影响(它们只决定是否播放动画),
+     * 连续振动的合并见{@link LifeClockHaptics}
+     */
     private void vibrate(long millisecond) {
-        Vibrator vibrator = (Vibrator) mContext.getSystemService(Context.VIBRATOR_SERVICE);
-        if (vibrator == null) {
+        LifeClockHaptics.vibrate(mContext, millisecond);
+    }
+
+    /**
+     * 是否将表盘静态部分(年龄文本、编辑图标、0岁圆点、出生日说明)缓存为离屏图层,
+     * 开启后指针动画每一帧只需重绘指针与百分比文本,代价是额外占用一份图层内存
+     */
+    public void setStaticLayerCacheEnabled(boolean enabled) {
+        if (mRenderer.isStaticLayerCacheEnabled() == enabled) {
             return;
         }
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
-            vibrator.vibrate(VibrationEffect.createOneShot(millisecond, VibrationEffect.DEFAULT_AMPLITUDE));
-        } else {
-            vibrator.vibrate(millisecond);
-        }
+        mRenderer.setStaticLayerCacheEnabled(enabled);
+        invalidate();
+    }
+
+    public boolean isStaticLayerCacheEnabled() {
+        return mRenderer.isStaticLayerCacheEnabled();
     }
 
+    /**
+     * 修改最大年龄,重新生成年龄文本并按当前年龄重新计算指针位置,超过{@link LifeClockStyle#MAX_AGE}时取最大值
+     */
     public void setCurrentMaxAge(int currentMaxAge) {
-        mCurrentMaxAge = currentMaxAge > MAX_AGE ? MAX_AGE : currentMaxAge;
+        beginStyleUpdate().setMaxAge(currentMaxAge).commit();
     }
 
-    private float sp2px(float spValue) {
-        return TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP, spValue, getResources().getDisplayMetrics());
+    /**
+     * 更新最大年龄,只有在最大年龄确实变化时才重新生成年龄文本并重新布局
+     *
+     * @return 最大年龄是否发生了变化
+     */
+    private boolean applyCurrentMaxAge(int currentMaxAge) {
+        int maxAge = currentMaxAge > MAX_AGE ? MAX_AGE : currentMaxAge;
+        LifeClockStyle style = mRenderer.getStyle();
+        if (maxAge == style.getMaxAge()) {
+            return false;
+        }
+        LifeClockStyle newStyle = style.buildUpon().setMaxAge(maxAge).build();
+        newStyle.checkValid();
+        return mRenderer.setStyle(newStyle);
     }
 
-    private float dp2px(float dpValue) {
-        return TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, dpValue, getResources().getDisplayMetrics());
+    public LifeClockStyle getStyle() {
+        return mRenderer.getStyle();
+    }
+
+    /**
+     * 一次性替换全部样式,等价于{@link #beginStyleUpdate()}后设置所有属性再提交
+     *
+     * @throws IllegalArgumentException 样式不合法,例如尺寸为负数或最大年龄小于{@link LifeClockStyle#AGE_STEP}
+     */
+    public void setStyle(LifeClockStyle style) {
+        if (style == null) {
+            throw new IllegalArgumentException("style == null");
+        }
+        applyStyle(style);
+    }
+
+    /**
+     * 开始修改样式,在{@link StyleTransaction#commit()}之前的修改不会生效.
+     * 提交时只重新生成发生变化的部分,并且只重新布局、重绘一次:
+     * <pre>
+     * lifeClockView.beginStyleUpdate()
+     *         .setAgeTextColor(color)
+     *         .setPointerLineColor(color)
+     *         .setMaxAge(90)
+     *         .commit();
+     * </pre>
+     */
+    public StyleTransaction beginStyleUpdate() {
+        return new StyleTransaction(mRenderer.getStyle());
+    }
+
+    /**
+     * 校验并应用新样式,最大年龄变化时按当前年龄重新计算百分比与指针角度
+     */
+    private void applyStyle(LifeClockStyle style) {
+        style.checkValid();
+        int oldDialMaxAge = mRenderer.getStyle().getDialMaxAge();
+        if (!mRenderer.setStyle(style)) {
+            return;
+        }
+        mRenderer.ensureDialLayout();
+        if (style.getDialMaxAge() != oldDialMaxAge) {
+            if (mLiveProgress != null && mLiveProgress.isEnabled()) {
+                // 实时模式下按新的转动范围重新计算指针,由applyLiveProgress负责重绘
+                mLiveDrawnAngle = Float.NaN;
+                applyLiveProgress(false);
+                return;
+            }
+            applyCurrentAge(mRenderer.getCurrentAge());
+            if (mPointerAnimator.isActive()) {
+                // 动画进行中时转向新的目标角度,由动画负责重绘
+                startPointerAnimation(BIND_ANIMATION_DURATION);
+                return;
+            }
+            if (!isFirstCalc) {
+                mRenderer.setPointer(mRenderer.getPointerFinalAngle(), LifeClockRenderer.MAX_ALPHA);
+            }
+        }
+        invalidate();
     }
 
     public void setOnEditClickListener(OnEditClickListener onEditClickListener) {
         mOnEditClickListener = onEditClickListener;
     }
 
+    /**
+     * 设置指针动画的开始/结束回调
+     */
+    public void setOnPointerAnimationListener(OnPointerAnimationListener onPointerAnimationListener) {
+        mOnPointerAnimationListener = onPointerAnimationListener;
+    }
+
+    /**
+     * 开启后可以从指针或年龄文本圆环开始拖动指针选择年龄,拖动过程中通过{@link OnAgeScrubListener}回调年龄变化;
+     * 拖动时不会触发编辑图标与0岁圆点的点击.拖动被取消(ACTION_CANCEL)时恢复拖动前的年龄
+     */
+    public void setScrubEnabled(boolean enabled) {
+        if (!enabled) {
+            mScrubber = null;
+            return;
+        }
+        if (mScrubber != null) {
+            return;
+        }
+        mScrubber = new LifeClockScrubber(new LifeClockScrubber.Target() {
+            @Override
+            public void onScrubStart() {
+                mScrubStartAge = mRenderer.getCurrentAge();
+                mScrubStartLive = mLiveProgress != null && mLiveProgress.isEnabled();
+                stopLifeProgress();
+                mPointerAnimator.cancel();
+                isFirstCalc = false;
+                ViewParent parent = getParent();
+                if (parent != null) {
+                    parent.requestDisallowInterceptTouchEvent(true);
+                }
+                if (mOnAgeScrubListener != null) {
+                    mOnAgeScrubListener.onScrubStart();
+                }
+            }
+
+            @Override
+            public void onScrubMove(float angle, int age, boolean ageChanged) {
+                // 指针跟随手指,百分比与年龄文本颜色跟随取整后的年龄
+                mRenderer.setPointer(angle, LifeClockRenderer.MAX_ALPHA);
+                mRenderer.setPointerFinalAngle(angle);
+                if (ageChanged) {
+                    mRenderer.setCurrentAge(age);
+                    mRenderer.setPercent(DialGeometry.percent(age, mRenderer.getStyle().getDialMaxAge()));
+                    if (mOnAgeScrubListener != null) {
+                        mOnAgeScrubListener.onScrubAgeChanged(age);
+                    }
+                }
+                invalidate();
+            }
+
+            @Override
+            public void onScrubEnd(int age, boolean canceled) {
+                if (canceled && mScrubStartLive) {
+                    startLifeProgress(mLiveProgress.getBirthTimeMillis(), mLiveProgress.getLifeSpanMillis(),
+                            mLiveExpectedAge);
+                    age = mRenderer.getCurrentAge();
+                } else {
+                    if (canceled) {
+                        age = mScrubStartAge;
+                    }
+                    applyCurrentAge(age);
+                    snapPointerToFinal();
+                }
+                if (mOnAgeScrubListener != null) {
+                    mOnAgeScrubListener.onScrubEnd(age, canceled);
+                }
+            }
+        }, ViewConfiguration.get(mContext).getScaledTouchSlop());
+    }
+
+    public boolean isScrubEnabled() {
+        return mScrubber != null;
+    }
+
+    public void setOnAgeScrubListener(OnAgeScrubListener onAgeScrubListener) {
+        mOnAgeScrubListener = onAgeScrubListener;
+    }
+
+    /**
+     * 开启绘制统计,每次指针动画结束时回调一次汇总结果;传入null关闭统计.
+     * 未开启时没有任何额外开销,可以保留在正式版本中.只统计耗时与帧数,不统计分配次数
+     */
+    public void setOnFrameMetricsListener(OnFrameMetricsListener onFrameMetricsListener) {
+        setOnFrameMetricsListener(onFrameMetricsListener, false);
+    }
+
+    /**
+     * 开启绘制统计
+     *
+     * @param countAllocations 是否在指针动画期间统计分配次数.
+     *                         统计依赖已废弃的{@link android.os.Debug#startAllocCounting()},
+     *                         它是进程级开关,开启期间整个进程的分配都会变慢,只应在调试版本中开启
+     */
+    public void setOnFrameMetricsListener(OnFrameMetricsListener onFrameMetricsListener, boolean countAllocations) {
+        if (mMetricsRecorder != null) {
+            mMetricsRecorder.release();
+            mMetricsRecorder = null;
+        }
+        if (onFrameMetricsListener != null) {
+            mMetricsRecorder = new LifeClockMetricsRecorder(onFrameMetricsListener, countAllocations);
+        }
+    }
+
+    /**
+     * 样式修改事务,通过{@link #beginStyleUpdate()}获取,只能提交一次
+     */
+    public final class StyleTransaction {
+        private final LifeClockStyle.Builder mBuilder;
+        private boolean mCommitted;
+
+        private StyleTransaction(LifeClockStyle style) {
+            mBuilder = style.buildUpon();
+        }
+
+        public StyleTransaction setAgeTextColor(int ageTextColor) {
+            mBuilder.setAgeTextColor(ageTextColor);
+            return this;
+        }
+
+        public StyleTransaction setPastAgeTextColor(int pastAgeTextColor) {
+            mBuilder.setPastAgeTextColor(pastAgeTextColor);
+            return this;
+        }
+
+        public StyleTransaction setAgeTextSize(float ageTextSize) {
+            mBuilder.setAgeTextSize(ageTextSize);
+            return this;
+        }
+
+        public StyleTransaction setAgeTextOffset(float ageTextOffset) {
+            mBuilder.setAgeTextOffset(ageTextOffset);
+            return this;
+        }
+
+        public StyleTransaction setZeroAgeDownCircleRadius(float zeroAgeDownCircleRadius) {
+            mBuilder.setZeroAgeDownCircleRadius(zeroAgeDownCircleRadius);
+            return this;
+        }
+
+        public StyleTransaction setZeroAgeDownCircleColor(int zeroAgeDownCircleColor) {
+            mBuilder.setZeroAgeDownCircleColor(zeroAgeDownCircleColor);
+            return this;
+        }
+
+        public StyleTransaction setZeroAgeDownCircleOffset(float zeroAgeDownCircleOffset) {
+            mBuilder.setZeroAgeDownCircleOffset(zeroAgeDownCircleOffset);
+            return this;
+        }
+
+        public StyleTransaction setCenterCircleRadius(float centerCircleRadius) {
+            mBuilder.setCenterCircleRadius(centerCircleRadius);
+            return this;
+        }
+
+        public StyleTransaction setCenterCircleColor(int centerCircleColor) {
+            mBuilder.setCenterCircleColor(centerCircleColor);
+            return this;
+        }
+
+        public StyleTransaction setPointerLineWidth(float pointerLineWidth) {
+            mBuilder.setPointerLineWidth(pointerLineWidth);
+            return this;
+        }
+
+        public StyleTransaction setPointerLineColor(int pointerLineColor) {
+            mBuilder.setPointerLineColor(pointerLineColor);
+            return this;
+        }
+
+        public StyleTransaction setZeroAgeTipsRectColor(int zeroAgeTipsRectColor) {
+            mBuilder.setZeroAgeTipsRectColor(zeroAgeTipsRectColor);
+            return this;
+        }
+
+        /**
+         * 超过{@link LifeClockStyle#MAX_AGE}时取最大值
+         */
+        public StyleTransaction setMaxAge(int maxAge) {
+            mBuilder.setMaxAge(maxAge);
+            return this;
+        }
+
+        /**
+         * @see LifeClockStyle.Builder#setTickMode(int)
+         */
+        public StyleTransaction setTickMode(int tickMode) {
+            mBuilder.setTickMode(tickMode);
+            return this;
+        }
+
+        /**
+         * 校验并应用所有修改,没有任何变化时不会重新布局与重绘
+         *
+         * @throws IllegalArgumentException 样式不合法,此时View保持原样式
+         * @throws IllegalStateException    重复提交
+         */
+        public void commit() {
+            if (mCommitted) {
+                throw new IllegalStateException("StyleTransaction already committed");
+            }
+            LifeClockStyle style = mBuilder.build();
+            style.checkValid();
+            mCommitted = true;
+            applyStyle(style);
+        }
+    }
+
+    static class SavedState extends BaseSavedState {
+        int mCurrentAge;
+        int mMaxAge;
+        float mPointerFinalAngle;
+        boolean mPointerShown;
+        boolean mShowZeroAgeTips;
+        boolean mLiveProgress;
+        long mBirthTimeMillis;
+        long mLifeSpanMillis;
+        float mLiveExpectedAge = Float.NaN;
+
+        SavedState(Parcelable superState) {
+            super(superState);
+        }
+
+        private SavedState(Parcel source) {
+            super(source);
+            mCurrentAge = source.readInt();
+            mMaxAge = source.readInt();
+            mPointerFinalAngle = source.readFloat();
+            mPointerShown = source.readInt() != 0;
+            mShowZeroAgeTips = source.readInt() != 0;
+            mLiveProgress = source.readInt() != 0;
+            mBirthTimeMillis = source.readLong();
+            mLifeSpanMillis = source.readLong();
+            mLiveExpectedAge = source.readFloat();
+        }
+
+        @Override
+        public void writeToParcel(Parcel out, int flags) {
+            super.writeToParcel(out, flags);
+            out.writeInt(mCurrentAge);
+            out.writeInt(mMaxAge);
+            out.writeFloat(mPointerFinalAngle);
+            out.writeInt(mPointerShown ? 1 : 0);
+            out.writeInt(mShowZeroAgeTips ? 1 : 0);
+            out.writeInt(mLiveProgress ? 1 : 0);
+            out.writeLong(mBirthTimeMillis);
+            out.writeLong(mLifeSpanMillis);
+            out.writeFloat(mLiveExpectedAge);
+        }
+
+        public static final Parcelable.Creator<SavedState> CREATOR = new Parcelable.Creator<SavedState>() {
+            @Override
+            public SavedState createFromParcel(Parcel source) {
+                return new SavedState(source);
+            }
+
+            @Override
+            public SavedState[] newArray(int size) {
+                return new SavedState[size];
+            }
+        };
+    }
+
     public interface OnEditClickListener {
         void onClick();
     }
+
+    public interface OnAgeScrubListener {
+        void onScrubStart();
+
+        /**
+         * 拖动过程中年龄发生变化,每帧最多回调一次
+         */
+        void onScrubAgeChanged(int age);
+
+        /**
+         * @param age      拖动结束后的年龄,取消时为拖动前的年龄
+         * @param canceled 是否被取消(例如父View拦截了手势),此时已恢复拖动前的年龄
+         */
+        void onScrubEnd(int age, boolean canceled);
+    }
+
+    public interface OnFrameMetricsListener {
+        void onFrameMetrics(LifeClockFrameMetrics metrics);
+    }
+
+    public interface OnPointerAnimationListener {
+        void onPointerAnimationStart();
+
+        /**
+         * 动画结束,动画进行中收到新的年龄时会直接转向新目标,不会回调此方法
+         *
+         * @param canceled 是否被取消(例如View被detach或重新绑定)
+         */
+        void onPointerAnimationEnd(boolean canceled);
+    }
 }
\ No newline at end of file
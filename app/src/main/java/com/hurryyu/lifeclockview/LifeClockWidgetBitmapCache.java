@@ -0,0 +1,90 @@
+package com.hurryyu.lifeclockview;
+
+import android.graphics.Bitmap;
+import android.util.LruCache;
+
+/**
+ * 桌面小部件渲染结果的缓存
+ * <p>
+ * 以年龄、最大年龄、尺寸、主题与屏幕密度为key,按Bitmap实际占用的字节数计算容量.
+ * 被淘汰的Bitmap归还到{@link LifeClockBitmapPool}中供下一次渲染复用(也可能被回收),
+ * 因此本类只能在渲染小部件的单一后台线程中使用.
+ * {@link #put(Key, Bitmap)}可能立即淘汰包括新Bitmap在内的任意条目,调用方须在Bitmap推送完成后再放入缓存.
+ */
+final class LifeClockWidgetBitmapCache {
+    private final LruCache<Key, Bitmap> mCache;
+
+    /**
+     * @param maxBytes 缓存的最大字节数
+     * @param pool     被淘汰的Bitmap归还到该池中
+     */
+    LifeClockWidgetBitmapCache(int maxBytes, final LifeClockBitmapPool pool) {
+        mCache = new LruCache<Key, Bitmap>(maxBytes) {
+            @Override
+            protected int sizeOf(Key key, Bitmap value) {
+                return value.getAllocationByteCount();
+            }
+
+            @Override
+            protected void entryRemoved(boolean evicted, Key key, Bitmap oldValue, Bitmap newValue) {
+                if (oldValue != newValue) {
+                    pool.release(oldValue);
+                }
+            }
+        };
+    }
+
+    Bitmap get(Key key) {
+        return mCache.get(key);
+    }
+
+    void put(Key key, Bitmap bitmap) {
+        mCache.put(key, bitmap);
+    }
+
+    void clear() {
+        mCache.evictAll();
+    }
+
+    static final class Key {
+        private final int mAge;
+        private final int mMaxAge;
+        private final int mSize;
+        private final boolean mNight;
+        private final int mDensityDpi;
+
+        Key(int age, int maxAge, int size, boolean night, int densityDpi) {
+            mAge = age;
+            mMaxAge = maxAge;
+            mSize = size;
+            mNight = night;
+            mDensityDpi = densityDpi;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return mAge == key.mAge &&
+                    mMaxAge == key.mMaxAge &&
+                    mSize == key.mSize &&
+                    mNight == key.mNight &&
+                    mDensityDpi == key.mDensityDpi;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = mAge;
+            result = 31 * result + mMaxAge;
+            result = 31 * result + mSize;
+            result = 31 * result + (mNight ? 1 : 0);
+            result = 31 * result + mDensityDpi;
+            return result;
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package com.hurryyu.lifeclockview;
+
+import android.appwidget.AppWidgetManager;
+import android.appwidget.AppWidgetProvider;
+import android.content.ComponentName;
+import android.content.Context;
+import android.content.Intent;
+import android.content.SharedPreferences;
+import android.content.res.Configuration;
+import android.graphics.Bitmap;
+import android.graphics.Color;
+import android.os.Bundle;
+import android.util.DisplayMetrics;
+import android.util.SparseArray;
+import android.util.TypedValue;
+import android.widget.RemoteViews;
+
+import com.hurryyu.lifeclockview.core.DialGeometry;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 生命时钟桌面小部件
+ * <p>
+ * RemoteViews无法直接显示LifeClockView,因此在后台线程中通过{@link LifeClockImageRenderer}将表盘渲染为Bitmap,
+ * 渲染结果按年龄、尺寸、主题与屏幕密度缓存在{@link LifeClockWidgetBitmapCache}中.
+ * 每个小部件在内存中记录最近一次推送的年龄、最大年龄、尺寸、主题与屏幕密度,定时更新时都没有变化则不会重新渲染与推送.
+ * 该记录不持久化:重启、升级或进程被杀后小部件宿主中的内容可能已经丢失,新进程中的第一次更新总会重新推送.
+ */
+public class LifeClockWidgetProvider extends AppWidgetProvider {
+    private static final String PREFS_NAME = "life_clock_widget";
+    private static final String KEY_AGE = "age";
+    private static final String KEY_MAX_AGE = "max_age";
+    private static final int DEFAULT_MAX_AGE = 80;
+
+    /**
+     * 小部件的默认尺寸(dp),与life_clock_widget_info中的minWidth一致
+     */
+    private static final int DEFAULT_WIDGET_SIZE = 110;
+    /**
+     * 渲染时的最小边长(dp),小于该尺寸时年龄文本会互相重叠,由ImageView缩放显示
+     */
+    private static final int MIN_RENDER_SIZE = 280;
+
+    private static final int NIGHT_AGE_TEXT_COLOR = Color.parseColor("#E0E0E0");
+    private static final int NIGHT_PAST_AGE_TEXT_COLOR = Color.parseColor("#757575");
+    private static final int NIGHT_FOREGROUND_COLOR = Color.WHITE;
+
+    /**
+     * 所有渲染都在这一个后台线程中进行,空闲时线程会退出
+     */
+    private static final Executor RENDER_EXECUTOR;
+
+    static {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 10, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>());
+        executor.allowCoreThreadTimeOut(true);
+        RENDER_EXECUTOR = executor;
+    }
+
+    /**
+     * 以下字段只在RENDER_EXECUTOR的线程中访问
+     */
+    private static LifeClockImageRenderer sImageRenderer;
+    private static LifeClockWidgetBitmapCache sBitmapCache;
+    /**
+     * 每个小部件最近一次推送的内容
+     */
+    private static final SparseArray<LifeClockWidgetBitmapCache.Key> SHOWN_KEYS = new SparseArray<>();
+
+    /**
+     * 保存小部件显示的年龄并刷新所有小部件
+     */
+    public static void setAge(Context context, int age, int maxAge) {
+        getPreferences(context).edit()
+                .putInt(KEY_AGE, age)
+                .putInt(KEY_MAX_AGE, maxAge)
+                .apply();
+        Context appContext = context.getApplicationContext();
+        int[] ids = AppWidgetManager.getInstance(appContext)
+                .getAppWidgetIds(new ComponentName(appContext, LifeClockWidgetProvider.class));
+        if (ids == null || ids.length == 0) {
+            return;
+        }
+        Intent intent = new Intent(appContext, LifeClockWidgetProvider.class);
+        intent.setAction(AppWidgetManager.ACTION_APPWIDGET_UPDATE);
+        intent.putExtra(AppWidgetManager.EXTRA_APPWIDGET_IDS, ids);
+        appContext.sendBroadcast(intent);
+    }
+
+    @Override
+    public void onUpdate(Context context, AppWidgetManager appWidgetManager, int[] appWidgetIds) {
+        updateAsync(context, appWidgetManager, appWidgetIds);
+    }
+
+    @Override
+    public void onAppWidgetOptionsChanged(Context context, AppWidgetManager appWidgetManager,
+                                          int appWidgetId, Bundle newOptions) {
+        updateAsync(context, appWidgetManager, new int[]{appWidgetId});
+    }
+
+    @Override
+    public void onEnabled(Context context) {
+        RENDER_EXECUTOR.execute(new Runnable() {
+            @Override
+            public void run() {
+                SHOWN_KEYS.clear();
+            }
+        });
+    }
+
+    @Override
+    public void onDeleted(Context context, final int[] appWidgetIds) {
+        RENDER_EXECUTOR.execute(new Runnable() {
+            @Override
+            public void run() {
+                for (int appWidgetId : appWidgetIds) {
+                    SHOWN_KEYS.remove(appWidgetId);
+                }
+            }
+        });
+    }
+
+    @Override
+    public void onDisabled(Context context) {
+        RENDER_EXECUTOR.execute(new Runnable() {
+            @Override
+            public void run() {
+                SHOWN_KEYS.clear();
+                if (sBitmapCache != null) {
+                    sBitmapCache.clear();
+                    sImageRenderer.getBitmapPool().clear();
+                    sImageRenderer.release();
+                }
+            }
+        });
+    }
+
+    private void updateAsync(Context context, final AppWidgetManager appWidgetManager, final int[] appWidgetIds) {
+        final Context appContext = context.getApplicationContext();
+        final PendingResult pendingResult = goAsync();
+        RENDER_EXECUTOR.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    for (int appWidgetId : appWidgetIds) {
+                        updateWidget(appContext, appWidgetManager, appWidgetId);
+                    }
+                } finally {
+                    pendingResult.finish();
+                }
+            }
+        });
+    }
+
+    private static void updateWidget(Context context, AppWidgetManager appWidgetManager, int appWidgetId) {
+        SharedPreferences preferences = getPreferences(context);
+        int age = preferences.getInt(KEY_AGE, 0);
+        int maxAge = Math.min(preferences.getInt(KEY_MAX_AGE, DEFAULT_MAX_AGE), LifeClockStyle.MAX_AGE);
+        LifeClockStyle style = createStyle(context, maxAge);
+        int percent = DialGeometry.percent(age, style.getDialMaxAge());
+
+        DisplayMetrics metrics = context.getResources().getDisplayMetrics();
+        boolean night = (context.getResources().getConfiguration().uiMode
+                & Configuration.UI_MODE_NIGHT_MASK) == Configuration.UI_MODE_NIGHT_YES;
+        int size = resolveRenderSize(metrics, appWidgetManager.getAppWidgetOptions(appWidgetId));
+
+        // 只有年龄、最大年龄、尺寸、主题或密度变化时才重新推送
+        LifeClockWidgetBitmapCache.Key key = new LifeClockWidgetBitmapCache.Key(age, maxAge, size, night, metrics.densityDpi);
+        if (key.equals(SHOWN_KEYS.get(appWidgetId))) {
+            return;
+        }
+
+        ensureRenderer(context, metrics);
+        Bitmap bitmap = sBitmapCache.get(key);
+        boolean rendered = bitmap == null;
+        if (rendered) {
+            bitmap = sImageRenderer.render(size, size, age, maxAge, night ? toNightStyle(style) : style);
+        }
+
+        RemoteViews views = new RemoteViews(context.getPackageName(), R.layout.widget_life_clock);
+        views.setImageViewBitmap(R.id.widget_life_clock_image, bitmap);
+        views.setContentDescription(R.id.widget_life_clock_image, percent + "%");
+        appWidgetManager.updateAppWidget(appWidgetId, views);
+        // updateAppWidget返回后Bitmap已经写入Binder事务,此时放入缓存才允许它被淘汰并归还到Bitmap池中
+        if (rendered) {
+            sBitmapCache.put(key, bitmap);
+        }
+        SHOWN_KEYS.put(appWidgetId, key);
+    }
+
+    private static void ensureRenderer(Context context, DisplayMetrics metrics) {
+        if (sImageRenderer != null) {
+            return;
+        }
+        int cacheBytes = (int) Math.min(getMaxBitmapBytes(metrics), Runtime.getRuntime().maxMemory() / 8);
+        LifeClockBitmapPool pool = new LifeClockBitmapPool(cacheBytes / 2);
+        sImageRenderer = new LifeClockImageRenderer(context, pool);
+        sBitmapCache = new LifeClockWidgetBitmapCache(cacheBytes, pool);
+    }
+
+    /**
+     * 根据小部件当前的尺寸计算渲染用的正方形边长(px),不小于MIN_RENDER_SIZE且不超过RemoteViews的Bitmap内存限制
+     */
+    private static int resolveRenderSize(DisplayMetrics metrics, Bundle options) {
+        int widthDp = options == null ? 0 : options.getInt(AppWidgetManager.OPTION_APPWIDGET_MIN_WIDTH);
+        int heightDp = options == null ? 0 : options.getInt(AppWidgetManager.OPTION_APPWIDGET_MAX_HEIGHT);
+        int sizeDp = Math.min(widthDp, heightDp);
+        if (sizeDp <= 0) {
+            sizeDp = DEFAULT_WIDGET_SIZE;
+        }
+        int size = (int) TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP,
+                Math.max(sizeDp, MIN_RENDER_SIZE), metrics);
+        int maxSize = (int) Math.sqrt(getMaxBitmapBytes(metrics) / 4F);
+        return Math.min(size, maxSize);
+    }
+
+    /**
+     * 与AppWidgetManager对单个RemoteViews中Bitmap内存的限制一致:屏幕尺寸 * 4字节 * 1.5
+     */
+    private static int getMaxBitmapBytes(DisplayMetrics metrics) {
+        return (int) (metrics.widthPixels * metrics.heightPixels * 4 * 1.5F);
+    }
+
+    private static LifeClockStyle createStyle(Context context, int maxAge) {
+        return new LifeClockStyle.Builder(context.getResources().getDisplayMetrics())
+                .setMaxAge(maxAge)
+                .build();
+    }
+
+    private static LifeClockStyle toNightStyle(LifeClockStyle style) {
+        return style.buildUpon()
+                .setAgeTextColor(NIGHT_AGE_TEXT_COLOR)
+                .setPastAgeTextColor(NIGHT_PAST_AGE_TEXT_COLOR)
+                .setCenterCircleColor(NIGHT_FOREGROUND_COLOR)
+                .setPointerLineColor(NIGHT_FOREGROUND_COLOR)
+                .build();
+    }
+
+    private static SharedPreferences getPreferences(Context context) {
+        return context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+}
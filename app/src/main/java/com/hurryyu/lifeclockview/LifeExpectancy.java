@@ -0,0 +1,169 @@
+package com.hurryyu.lifeclockview;
+
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+import android.content.res.AssetManager;
+import android.util.LongSparseArray;
+
+import com.hurryyu.lifeclockview.core.LifeTable;
+
+import java.io.Closeable;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+
+/**
+ * 根据出生日期、性别与地区估算预期寿命,结果可直接用于{@link LifeClockView#startLifeProgress(long, Estimate)}
+ * <p>
+ * 数据来自assets中内置的生命表(格式见{@link LifeTable}),不访问网络.
+ * 生命表在第一次查询时才以只读方式内存映射,启动时不读取文件,查询时只访问用到的页;
+ * 查询结果按(出生日, 性别, 地区)缓存,日期变化后失效.
+ * 内置数据由各地区出生时预期寿命拟合得到(见tools/life_table),只适合作为展示用途.
+ * 线程安全.
+ */
+public final class LifeExpectancy {
+    public static final int SEX_MALE = LifeTable.SEX_MALE;
+    public static final int SEX_FEMALE = LifeTable.SEX_FEMALE;
+    /**
+     * 未指定性别,取男女的平均值
+     */
+    public static final int SEX_UNSPECIFIED = -1;
+
+    /**
+     * 需要在build.gradle中通过aaptOptions.noCompress保持不压缩,否则无法内存映射
+     */
+    private static final String ASSET_NAME = "life_table.lct";
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+    private static final double MILLIS_PER_YEAR = 365.2425 * MILLIS_PER_DAY;
+    private static final int MEMO_CAPACITY = 64;
+    private static final int MAX_REGIONS = 256;
+
+    private static LifeExpectancy sInstance;
+
+    private final AssetManager mAssets;
+    private LifeTable mTable;
+    private final LongSparseArray<Estimate> mMemo = new LongSparseArray<>();
+    private long mMemoDay = Long.MIN_VALUE;
+
+    private LifeExpectancy(AssetManager assets) {
+        mAssets = assets;
+    }
+
+    public static synchronized LifeExpectancy get(Context context) {
+        if (sInstance == null) {
+            sInstance = new LifeExpectancy(context.getApplicationContext().getAssets());
+        }
+        return sInstance;
+    }
+
+    /**
+     * @param birthTimeMillis 出生时间戳(毫秒)
+     * @param sex             {@link #SEX_MALE}、{@link #SEX_FEMALE}或{@link #SEX_UNSPECIFIED}
+     * @param region          ISO 3166-1两位地区码,例如Locale.getDefault().getCountry(),
+     *                        表中没有该地区或为null时使用世界平均值
+     */
+    public Estimate estimate(long birthTimeMillis, int sex, String region) {
+        return estimate(birthTimeMillis, sex, region, System.currentTimeMillis());
+    }
+
+    synchronized Estimate estimate(long birthTimeMillis, int sex, String region, long nowMillis) {
+        if (sex != SEX_MALE && sex != SEX_FEMALE && sex != SEX_UNSPECIFIED) {
+            throw new IllegalArgumentException("unknown sex " + sex);
+        }
+        LifeTable table = ensureTable();
+        int regionIndex = table.indexOfRegion(region);
+        long today = floorDiv(nowMillis, MILLIS_PER_DAY);
+        long birthDay = floorDiv(birthTimeMillis, MILLIS_PER_DAY);
+        if (today != mMemoDay || mMemo.size() >= MEMO_CAPACITY) {
+            mMemoDay = today;
+            mMemo.clear();
+        }
+        long key = ((birthDay << 2) | (sex + 1)) * MAX_REGIONS + regionIndex;
+        Estimate estimate = mMemo.get(key);
+        if (estimate == null) {
+            float age = (float) ((today - birthDay) * MILLIS_PER_DAY / MILLIS_PER_YEAR);
+            float expectedAge;
+            if (sex == SEX_UNSPECIFIED) {
+                expectedAge = (table.getExpectedAge(regionIndex, SEX_MALE, age) +
+                        table.getExpectedAge(regionIndex, SEX_FEMALE, age)) / 2F;
+            } else {
+                expectedAge = table.getExpectedAge(regionIndex, sex, age);
+            }
+            estimate = new Estimate(expectedAge);
+            mMemo.put(key, estimate);
+        }
+        return estimate;
+    }
+
+    /**
+     * 第一次查询时映射生命表,映射建立后文件可以关闭
+     */
+    private LifeTable ensureTable() {
+        if (mTable != null) {
+            return mTable;
+        }
+        AssetFileDescriptor fd = null;
+        FileInputStream in = null;
+        try {
+            fd = mAssets.openFd(ASSET_NAME);
+            in = fd.createInputStream();
+            FileChannel channel = in.getChannel();
+            mTable = new LifeTable(channel.map(FileChannel.MapMode.READ_ONLY, fd.getStartOffset(), fd.getLength()));
+        } catch (IOException e) {
+            throw new IllegalStateException("can not map " + ASSET_NAME, e);
+        } finally {
+            closeQuietly(in);
+            closeQuietly(fd);
+        }
+        return mTable;
+    }
+
+    private static long floorDiv(long x, long y) {
+        long q = x / y;
+        return (x % y != 0 && (x ^ y) < 0) ? q - 1 : q;
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    /**
+     * 预期寿命的估算结果,不可变
+     */
+    public static final class Estimate {
+        private final float mExpectedAge;
+
+        Estimate(float expectedAge) {
+            mExpectedAge = expectedAge;
+        }
+
+        /**
+         * 预期寿命(年)
+         */
+        public float getExpectedAge() {
+            return mExpectedAge;
+        }
+
+        /**
+         * 预期寿命(毫秒)
+         */
+        public long getLifeSpanMillis() {
+            return (long) (mExpectedAge * MILLIS_PER_YEAR);
+        }
+
+        /**
+         * 覆盖预期寿命的表盘最大年龄:向上取整到{@link LifeClockStyle#AGE_STEP}的倍数,不超过{@link LifeClockStyle#MAX_AGE}
+         */
+        public int getMaxAge() {
+            int step = LifeClockStyle.AGE_STEP;
+            int maxAge = (int) Math.ceil(mExpectedAge / step) * step;
+            return maxAge > LifeClockStyle.MAX_AGE ? LifeClockStyle.MAX_AGE : maxAge < step ? step : maxAge;
+        }
+    }
+}
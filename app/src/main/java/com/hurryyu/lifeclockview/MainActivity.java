@@ -28,6 +28,7 @@ public class MainActivity extends AppCompatActivity {
                     return;
                 }
                 lifeClockView.setCurrentAge(Integer.parseInt(age));
+                LifeClockWidgetProvider.setAge(MainActivity.this, Integer.parseInt(age), 80);
             }
         });
 
@@ -0,0 +1,312 @@
+package com.hurryyu.lifeclockview;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.RectF;
+
+import java.util.Locale;
+
+/**
+ * 记录绘制操作的Canvas
+ * <p>
+ * 统计每种绘制操作的次数,统计过程不分配对象,可以与分配计数一起使用.
+ * 同时记录所有绘制操作映射到画布坐标后的范围(文本只计算起点).
+ * 开启快照后额外把每个操作(映射到画布坐标后的几何信息与颜色)按行记录下来,用于与golden文件比较.
+ * 只跟踪平移、旋转与缩放,不执行实际的绘制.
+ */
+final class DrawOpRecorder extends Canvas {
+    private static final int MAX_SAVE_DEPTH = 16;
+
+    private int mTextDraws;
+    private int mBitmapDraws;
+    private int mCircleDraws;
+    private int mLineDraws;
+    private int mRectDraws;
+
+    private float mMinX;
+    private float mMinY;
+    private float mMaxX;
+    private float mMaxY;
+
+    private StringBuilder mSnapshot;
+
+    /**
+     * 当前变换(a, b, c, d, tx, ty),x' = a * x + c * y + tx,y' = b * x + d * y + ty
+     */
+    private final float[] mStack = new float[MAX_SAVE_DEPTH * 6];
+    private int mDepth;
+    private final float[] mMatrixValues = new float[9];
+
+    DrawOpRecorder() {
+        reset();
+    }
+
+    /**
+     * 清空计数与变换,snapshot为true时开始记录快照
+     */
+    void reset(boolean snapshot) {
+        mTextDraws = 0;
+        mBitmapDraws = 0;
+        mCircleDraws = 0;
+        mLineDraws = 0;
+        mRectDraws = 0;
+        mMinX = Float.POSITIVE_INFINITY;
+        mMinY = Float.POSITIVE_INFINITY;
+        mMaxX = Float.NEGATIVE_INFINITY;
+        mMaxY = Float.NEGATIVE_INFINITY;
+        mSnapshot = snapshot ? new StringBuilder() : null;
+        mDepth = 0;
+        setIdentity(0);
+    }
+
+    void reset() {
+        reset(false);
+    }
+
+    int getTextDraws() {
+        return mTextDraws;
+    }
+
+    int getBitmapDraws() {
+        return mBitmapDraws;
+    }
+
+    int getCircleDraws() {
+        return mCircleDraws;
+    }
+
+    int getLineDraws() {
+        return mLineDraws;
+    }
+
+    int getRectDraws() {
+        return mRectDraws;
+    }
+
+    float getMinX() {
+        return mMinX;
+    }
+
+    float getMinY() {
+        return mMinY;
+    }
+
+    float getMaxX() {
+        return mMaxX;
+    }
+
+    float getMaxY() {
+        return mMaxY;
+    }
+
+    String getSnapshot() {
+        return mSnapshot == null ? "" : mSnapshot.toString();
+    }
+
+    // ---------------------------------------------------------------- 变换
+
+    private void setIdentity(int offset) {
+        mStack[offset] = 1;
+        mStack[offset + 1] = 0;
+        mStack[offset + 2] = 0;
+        mStack[offset + 3] = 1;
+        mStack[offset + 4] = 0;
+        mStack[offset + 5] = 0;
+    }
+
+    @Override
+    public boolean isHardwareAccelerated() {
+        return false;
+    }
+
+    @Override
+    public int save() {
+        if (mDepth + 1 >= MAX_SAVE_DEPTH) {
+            throw new IllegalStateException("save depth exceeds " + MAX_SAVE_DEPTH);
+        }
+        System.arraycopy(mStack, mDepth * 6, mStack, (mDepth + 1) * 6, 6);
+        return mDepth++;
+    }
+
+    @Override
+    public void restore() {
+        if (mDepth == 0) {
+            throw new IllegalStateException("restore without save");
+        }
+        mDepth--;
+    }
+
+    @Override
+    public void restoreToCount(int saveCount) {
+        if (saveCount < 0 || saveCount > mDepth) {
+            throw new IllegalStateException("bad save count " + saveCount);
+        }
+        mDepth = saveCount;
+    }
+
+    @Override
+    public int getSaveCount() {
+        return mDepth;
+    }
+
+    @Override
+    public void translate(float dx, float dy) {
+        int o = mDepth * 6;
+        mStack[o + 4] += mStack[o] * dx + mStack[o + 2] * dy;
+        mStack[o + 5] += mStack[o + 1] * dx + mStack[o + 3] * dy;
+    }
+
+    @Override
+    public void scale(float sx, float sy) {
+        int o = mDepth * 6;
+        mStack[o] *= sx;
+        mStack[o + 1] *= sx;
+        mStack[o + 2] *= sy;
+        mStack[o + 3] *= sy;
+    }
+
+    @Override
+    public void rotate(float degrees) {
+        int o = mDepth * 6;
+        double radians = Math.toRadians(degrees);
+        float cos = (float) Math.cos(radians);
+        float sin = (float) Math.sin(radians);
+        float a = mStack[o];
+        float b = mStack[o + 1];
+        float c = mStack[o + 2];
+        float d = mStack[o + 3];
+        mStack[o] = a * cos + c * sin;
+        mStack[o + 1] = b * cos + d * sin;
+        mStack[o + 2] = c * cos - a * sin;
+        mStack[o + 3] = d * cos - b * sin;
+    }
+
+    @Override
+    public void setMatrix(Matrix matrix) {
+        int o = mDepth * 6;
+        if (matrix == null) {
+            setIdentity(o);
+            return;
+        }
+        matrix.getValues(mMatrixValues);
+        mStack[o] = mMatrixValues[Matrix.MSCALE_X];
+        mStack[o + 1] = mMatrixValues[Matrix.MSKEW_Y];
+        mStack[o + 2] = mMatrixValues[Matrix.MSKEW_X];
+        mStack[o + 3] = mMatrixValues[Matrix.MSCALE_Y];
+        mStack[o + 4] = mMatrixValues[Matrix.MTRANS_X];
+        mStack[o + 5] = mMatrixValues[Matrix.MTRANS_Y];
+    }
+
+    private float mapX(float x, float y) {
+        int o = mDepth * 6;
+        return mStack[o] * x + mStack[o + 2] * y + mStack[o + 4];
+    }
+
+    private float mapY(float x, float y) {
+        int o = mDepth * 6;
+        return mStack[o + 1] * x + mStack[o + 3] * y + mStack[o + 5];
+    }
+
+    private void include(float x, float y) {
+        float mappedX = mapX(x, y);
+        float mappedY = mapY(x, y);
+        mMinX = Math.min(mMinX, mappedX);
+        mMinY = Math.min(mMinY, mappedY);
+        mMaxX = Math.max(mMaxX, mappedX);
+        mMaxY = Math.max(mMaxY, mappedY);
+    }
+
+    // ---------------------------------------------------------------- 绘制
+
+    @Override
+    public void drawText(String text, float x, float y, Paint paint) {
+        mTextDraws++;
+        include(x, y);
+        if (mSnapshot != null) {
+            appendText(text, x, y, paint);
+        }
+    }
+
+    @Override
+    public void drawText(char[] text, int index, int count, float x, float y, Paint paint) {
+        mTextDraws++;
+        include(x, y);
+        if (mSnapshot != null) {
+            appendText(new String(text, index, count), x, y, paint);
+        }
+    }
+
+    @Override
+    public void drawBitmap(Bitmap bitmap, float left, float top, Paint paint) {
+        mBitmapDraws++;
+        include(left, top);
+        include(left + bitmap.getWidth(), top + bitmap.getHeight());
+        if (mSnapshot != null) {
+            append("bitmap %dx%d at %s", bitmap.getWidth(), bitmap.getHeight(), point(left, top));
+        }
+    }
+
+    @Override
+    public void drawCircle(float cx, float cy, float radius, Paint paint) {
+        mCircleDraws++;
+        include(cx - radius, cy - radius);
+        include(cx + radius, cy + radius);
+        if (mSnapshot != null) {
+            append("circle %s r=%.2f %s", point(cx, cy), radius, color(paint));
+        }
+    }
+
+    @Override
+    public void drawLine(float startX, float startY, float stopX, float stopY, Paint paint) {
+        mLineDraws++;
+        include(startX, startY);
+        include(stopX, stopY);
+        if (mSnapshot != null) {
+            append("line %s-%s w=%.2f %s", point(startX, startY), point(stopX, stopY),
+                    paint.getStrokeWidth(), color(paint));
+        }
+    }
+
+    @Override
+    public void drawLines(float[] pts, int offset, int count, Paint paint) {
+        mLineDraws++;
+        for (int i = offset; i < offset + count; i += 2) {
+            include(pts[i], pts[i + 1]);
+        }
+        if (mSnapshot != null) {
+            append("lines %d w=%.2f %s", count / 4, paint.getStrokeWidth(), color(paint));
+            for (int i = offset; i < offset + count; i += 4) {
+                append("  %s-%s", point(pts[i], pts[i + 1]), point(pts[i + 2], pts[i + 3]));
+            }
+        }
+    }
+
+    @Override
+    public void drawRoundRect(RectF rect, float rx, float ry, Paint paint) {
+        mRectDraws++;
+        include(rect.left, rect.top);
+        include(rect.right, rect.bottom);
+        if (mSnapshot != null) {
+            append("roundRect %s-%s r=%.2f %s", point(rect.left, rect.top), point(rect.right, rect.bottom),
+                    rx, color(paint));
+        }
+    }
+
+    private void appendText(String text, float x, float y, Paint paint) {
+        append("text \"%s\" at %s size=%.2f %s", text, point(x, y), paint.getTextSize(), color(paint));
+    }
+
+    private String point(float x, float y) {
+        return String.format(Locale.US, "(%.2f,%.2f)", mapX(x, y), mapY(x, y));
+    }
+
+    private static String color(Paint paint) {
+        return String.format(Locale.US, "#%08X", paint.getColor());
+    }
+
+    private void append(String format, Object... args) {
+        mSnapshot.append(String.format(Locale.US, format, args)).append('\n');
+    }
+}
@@ -0,0 +1,131 @@
+package com.hurryyu.lifeclockview;
+
+import android.content.Context;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class LifeClockDrawBudgetTest {
+    private static final int SWEEP_FRAMES = 60;
+    /**
+     * 百分比与百分比说明
+     */
+    private static final int PERCENT_TEXTS = 2;
+
+    private Context mContext;
+    private LifeClockStyle.Builder mStyleBuilder;
+
+    @Before
+    public void setUp() {
+        mContext = ApplicationProvider.getApplicationContext();
+        mStyleBuilder = new LifeClockStyle.Builder(mContext.getResources().getDisplayMetrics());
+    }
+
+    private LifeClockDrawHarness harness(int age, int maxAge, int width, int height) {
+        return new LifeClockDrawHarness(mContext, mStyleBuilder.setMaxAge(maxAge).build(), width, height, age);
+    }
+
+    @Test
+    public void frame_drawsEachLabelOnce() {
+        LifeClockStyle style = mStyleBuilder.setMaxAge(80).build();
+        DrawOpRecorder recorder = harness(30, 80, 400, 400).drawFrame();
+        assertEquals(style.getLabelCount() + PERCENT_TEXTS, recorder.getTextDraws());
+        // 编辑图标
+        assertEquals(1, recorder.getBitmapDraws());
+        // 0岁圆点与中心圆点
+        assertEquals(2, recorder.getCircleDraws());
+        // 指针
+        assertEquals(1, recorder.getLineDraws());
+        assertEquals(0, recorder.getRectDraws());
+    }
+
+    @Test
+    public void frame_withoutPointer_drawsLabelsOnly() {
+        LifeClockStyle style = mStyleBuilder.setMaxAge(100).build();
+        DrawOpRecorder recorder = harness(0, 100, 400, 400).drawFrame();
+        assertEquals(style.getLabelCount(), recorder.getTextDraws());
+        assertEquals(1, recorder.getCircleDraws());
+        assertEquals(0, recorder.getLineDraws());
+    }
+
+    @Test
+    public void frame_withZeroAgeTips_drawsTipsOnce() {
+        LifeClockDrawHarness harness = harness(30, 80, 400, 400);
+        int textDraws = harness.drawFrame().getTextDraws();
+        harness.getRenderer().setShowZeroAgeTips(true);
+        DrawOpRecorder recorder = harness.drawFrame();
+        assertEquals(textDraws + 1, recorder.getTextDraws());
+        assertEquals(1, recorder.getRectDraws());
+    }
+
+    @Test
+    public void frame_withTicks_drawsTwoLineBatches() {
+        mStyleBuilder.setTickMode(LifeClockStyle.TICK_MODE_MONTHS);
+        DrawOpRecorder recorder = harness(30, 80, 600, 600).drawFrame();
+        // 已扫过与未扫过的刻度各一次drawLines,加上指针
+        assertEquals(3, recorder.getLineDraws());
+    }
+
+    @Test
+    public void frame_withStaticLayerCache_drawsLabelsIntoLayersOnly() {
+        LifeClockDrawHarness harness = harness(30, 80, 400, 400);
+        harness.getRenderer().setStaticLayerCacheEnabled(true);
+        harness.drawFrame();
+        DrawOpRecorder recorder = harness.drawFrame();
+        assertEquals(PERCENT_TEXTS, recorder.getTextDraws());
+        // 已过去与未到达两份静态层
+        assertEquals(2, recorder.getBitmapDraws());
+    }
+
+    @Test
+    public void sweep_keepsPerFrameBudget() {
+        LifeClockDrawHarness harness = harness(45, 100, 400, 400);
+        int textDraws = harness.drawFrame().getTextDraws();
+        float finalAngle = harness.getRenderer().getPointerFinalAngle();
+        for (int i = 1; i <= SWEEP_FRAMES; i++) {
+            harness.getRenderer().setPointer(finalAngle * i / SWEEP_FRAMES, LifeClockRenderer.MAX_ALPHA);
+            assertEquals(textDraws, harness.drawFrame().getTextDraws());
+        }
+    }
+
+    @Test
+    public void sweep_doesNotAllocateAfterWarmUp() {
+        LifeClockDrawHarness harness = harness(45, 100, 400, 400);
+        harness.drawSweep(SWEEP_FRAMES);
+        long allocated = harness.measureSweepAllocations(SWEEP_FRAMES);
+        // 任何每帧分配的对象都至少有十几个字节,平均每帧不足1字节说明没有逐帧分配
+        assertTrue("allocated " + allocated + " bytes in " + SWEEP_FRAMES + " frames", allocated < SWEEP_FRAMES);
+    }
+
+    @Test
+    public void sweep_withTicks_doesNotAllocateAfterWarmUp() {
+        mStyleBuilder.setTickMode(LifeClockStyle.TICK_MODE_MONTHS);
+        LifeClockDrawHarness harness = harness(45, 100, 400, 400);
+        harness.drawSweep(SWEEP_FRAMES);
+        long allocated = harness.measureSweepAllocations(SWEEP_FRAMES);
+        assertTrue("allocated " + allocated + " bytes in " + SWEEP_FRAMES + " frames", allocated < SWEEP_FRAMES);
+    }
+
+    @Test
+    public void snapshot_default() throws Exception {
+        harness(30, 80, 400, 400).assertMatchesGolden("dial_30_80_400x400");
+    }
+
+    @Test
+    public void snapshot_withTicksAndTips() throws Exception {
+        mStyleBuilder.setTickMode(LifeClockStyle.TICK_MODE_YEARS);
+        LifeClockDrawHarness harness = harness(75, 100, 300, 300);
+        harness.getRenderer().setShowZeroAgeTips(true);
+        harness.assertMatchesGolden("dial_75_100_300x300_ticks");
+    }
+}
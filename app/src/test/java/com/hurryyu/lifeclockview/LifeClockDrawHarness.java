@@ -0,0 +1,142 @@
+package com.hurryyu.lifeclockview;
+
+import android.content.Context;
+
+import org.junit.Assume;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.Charset;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 绘制测试工具:以给定的年龄、最大年龄与尺寸驱动{@link LifeClockRenderer},
+ * 把每一帧绘制到{@link DrawOpRecorder}中,统计绘制操作、分配的内存,并与golden快照比较.
+ * LifeClockView.onDraw只是设置坐标变换后调用LifeClockRenderer.draw,这里直接驱动renderer.
+ * <p>
+ * golden快照保存在src/test/resources/golden中,
+ * 渲染有意变化时使用./gradlew testDebugUnitTest -PrecordGoldens重新生成.
+ * Robolectric中文本宽度按字符数计算、字形高度为0,快照锁定的是几何位置、颜色与绘制顺序,而不是字体度量.
+ */
+final class LifeClockDrawHarness {
+    private static final String GOLDEN_DIR = "src/test/resources/golden";
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final LifeClockRenderer mRenderer;
+    private final DrawOpRecorder mRecorder = new DrawOpRecorder();
+    private final int mWidth;
+    private final int mHeight;
+
+    LifeClockDrawHarness(Context context, LifeClockStyle style, int width, int height, int age) {
+        mRenderer = new LifeClockRenderer(context.getResources(), style);
+        mRenderer.setSize(width, height);
+        mRenderer.applyAge(age);
+        mRenderer.setPointer(mRenderer.getPointerFinalAngle(), LifeClockRenderer.MAX_ALPHA);
+        mWidth = width;
+        mHeight = height;
+    }
+
+    LifeClockRenderer getRenderer() {
+        return mRenderer;
+    }
+
+    /**
+     * 绘制一帧,返回记录了本帧绘制操作的recorder
+     */
+    DrawOpRecorder drawFrame() {
+        return drawFrame(false);
+    }
+
+    DrawOpRecorder drawFrame(boolean snapshot) {
+        DrawOpRecorder recorder = mRecorder;
+        recorder.reset(snapshot);
+        int saveCount = recorder.save();
+        recorder.translate(mWidth / 2F, mHeight / 2F);
+        mRenderer.draw(recorder);
+        recorder.restoreToCount(saveCount);
+        return recorder;
+    }
+
+    /**
+     * 模拟一次指针动画:从0度转到最终角度,透明度从0变为255,共frameCount帧
+     */
+    void drawSweep(int frameCount) {
+        float finalAngle = mRenderer.getPointerFinalAngle();
+        for (int i = 1; i <= frameCount; i++) {
+            float fraction = i / (float) frameCount;
+            mRenderer.setPointer(finalAngle * fraction, (int) (LifeClockRenderer.MAX_ALPHA * fraction));
+            drawFrame();
+        }
+    }
+
+    /**
+     * 一次指针动画中当前线程分配的字节数,已扣除测量本身的开销;JVM不支持统计时跳过测试
+     */
+    long measureSweepAllocations(int frameCount) {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue("allocation counting unsupported", bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) bean;
+        Assume.assumeTrue("allocation counting disabled", allocationBean.isThreadAllocatedMemoryEnabled());
+        long threadId = Thread.currentThread().getId();
+
+        long baselineStart = allocationBean.getThreadAllocatedBytes(threadId);
+        long baselineEnd = allocationBean.getThreadAllocatedBytes(threadId);
+        long start = allocationBean.getThreadAllocatedBytes(threadId);
+        drawSweep(frameCount);
+        long end = allocationBean.getThreadAllocatedBytes(threadId);
+        return Math.max(0, (end - start) - (baselineEnd - baselineStart));
+    }
+
+    /**
+     * 当前帧的几何快照与golden文件比较,golden文件不存在时测试失败
+     */
+    void assertMatchesGolden(String name) throws IOException {
+        String actual = "size " + mWidth + "x" + mHeight + "\n" + drawFrame(true).getSnapshot();
+        File file = new File(GOLDEN_DIR, name + ".txt");
+        if (Boolean.getBoolean("lifeclock.recordGoldens")) {
+            write(file, actual);
+            return;
+        }
+        assertTrue("golden " + file + " not recorded, run with -PrecordGoldens", file.exists());
+        assertEquals("draw ops differ from " + file, read(file), actual);
+    }
+
+    private static String read(File file) throws IOException {
+        InputStream in = new FileInputStream(file);
+        try {
+            byte[] bytes = new byte[(int) file.length()];
+            int offset = 0;
+            while (offset < bytes.length) {
+                int count = in.read(bytes, offset, bytes.length - offset);
+                if (count < 0) {
+                    break;
+                }
+                offset += count;
+            }
+            return new String(bytes, 0, offset, UTF_8);
+        } finally {
+            in.close();
+        }
+    }
+
+    private static void write(File file, String content) throws IOException {
+        File dir = file.getParentFile();
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("can not create " + dir);
+        }
+        OutputStream out = new FileOutputStream(file);
+        try {
+            out.write(content.getBytes(UTF_8));
+        } finally {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.hurryyu.lifeclockview;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Color;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class LifeClockImageRendererTest {
+    private Context mContext;
+    private LifeClockStyle mStyle;
+    private LifeClockImageRenderer mRenderer;
+
+    @Before
+    public void setUp() {
+        mContext = ApplicationProvider.getApplicationContext();
+        mStyle = new LifeClockStyle.Builder(mContext.getResources().getDisplayMetrics()).build();
+        mRenderer = new LifeClockImageRenderer(mContext, new LifeClockBitmapPool(16 * 1024 * 1024));
+    }
+
+    @Test
+    public void render_returnsBitmapOfRequestedSize() {
+        Bitmap bitmap = mRenderer.render(320, 240, 30, 80, mStyle);
+        assertEquals(320, bitmap.getWidth());
+        assertEquals(240, bitmap.getHeight());
+    }
+
+    @Test
+    public void draw_fitsCenteredSquareInNonSquareArea() {
+        DrawOpRecorder recorder = new DrawOpRecorder();
+        mRenderer.draw(recorder, 320, 240, 30, 80, mStyle);
+        String bounds = "bounds (" + recorder.getMinX() + ", " + recorder.getMinY()
+                + ")-(" + recorder.getMaxX() + ", " + recorder.getMaxY() + ")";
+        // 表盘是居中的240x240正方形,左右各留出40px
+        assertTrue(bounds, recorder.getMinX() >= 40 && recorder.getMaxX() <= 280);
+        assertTrue(bounds, recorder.getMinY() >= 0 && recorder.getMaxY() <= 240);
+        // 表盘没有被拉伸:水平与垂直方向的范围相同,且中心位于区域中心(文本只计算起点,允许几个像素的误差)
+        float width = recorder.getMaxX() - recorder.getMinX();
+        float height = recorder.getMaxY() - recorder.getMinY();
+        assertEquals(bounds, width, height, 3);
+        assertEquals(bounds, 160, (recorder.getMinX() + recorder.getMaxX()) / 2, 3);
+        assertEquals(bounds, 120, (recorder.getMinY() + recorder.getMaxY()) / 2, 3);
+    }
+
+    @Test
+    public void render_reusesReleasedBitmap() {
+        LifeClockBitmapPool pool = mRenderer.getBitmapPool();
+        Bitmap first = mRenderer.render(200, 200, 30, 80, mStyle);
+        pool.release(first);
+        assertEquals(1, pool.getFreeCount());
+
+        Bitmap second = mRenderer.render(200, 200, 45, 100, mStyle);
+        assertSame(first, second);
+        assertEquals(0, pool.getFreeCount());
+    }
+
+    @Test
+    public void release_evictsOverBudget() {
+        LifeClockBitmapPool pool = new LifeClockBitmapPool(200 * 200 * 4);
+        pool.release(pool.acquire(200, 200));
+        pool.release(pool.acquire(100, 100));
+        assertEquals(1, pool.getFreeCount());
+        assertEquals(100 * 100 * 4, pool.getFreeBytes());
+    }
+
+    @Test
+    public void render_isSafeFromBackgroundThreads() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Bitmap>> futures = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                final int age = i * 3;
+                futures.add(executor.submit(new Callable<Bitmap>() {
+                    @Override
+                    public Bitmap call() {
+                        return mRenderer.render(150 + age, 150 + age, age, 100, mStyle);
+                    }
+                }));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                Bitmap bitmap = futures.get(i).get();
+                assertEquals(150 + i * 3, bitmap.getWidth());
+                mRenderer.getBitmapPool().release(bitmap);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void render_rejectsEmptySize() {
+        mRenderer.render(0, 100, 30, 80, mStyle);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void draw_rejectsMaxAgeBelowStep() {
+        mRenderer.draw(new DrawOpRecorder(), 200, 200, 3, LifeClockStyle.AGE_STEP - 1, mStyle);
+    }
+
+    @Test
+    public void render_invalidArguments_leavePoolUntouched() {
+        LifeClockBitmapPool pool = mRenderer.getBitmapPool();
+        pool.release(pool.acquire(200, 200));
+        try {
+            mRenderer.render(200, 200, 3, LifeClockStyle.AGE_STEP - 1, mStyle);
+            fail("maxAge below step accepted");
+        } catch (IllegalArgumentException expected) {
+        }
+        try {
+            mRenderer.render(200, 200, -1, 80, mStyle);
+            fail("negative age accepted");
+        } catch (IllegalArgumentException expected) {
+        }
+        assertEquals(1, pool.getFreeCount());
+    }
+
+    @Test
+    public void render_invalidArguments_keepCallerBitmap() {
+        Bitmap bitmap = Bitmap.createBitmap(100, 100, Bitmap.Config.ARGB_8888);
+        bitmap.eraseColor(Color.RED);
+        try {
+            mRenderer.render(bitmap, 3, LifeClockStyle.AGE_STEP - 1, mStyle);
+            fail("maxAge below step accepted");
+        } catch (IllegalArgumentException expected) {
+        }
+        try {
+            mRenderer.render(bitmap, -1, 80, mStyle);
+            fail("negative age accepted");
+        } catch (IllegalArgumentException expected) {
+        }
+        assertEquals(Color.RED, bitmap.getPixel(50, 50));
+    }
+}
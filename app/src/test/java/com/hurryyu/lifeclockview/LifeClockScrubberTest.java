@@ -0,0 +1,129 @@
+package com.hurryyu.lifeclockview;
+
+import com.hurryyu.lifeclockview.core.DialGeometry;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LifeClockScrubberTest {
+    private static final float TOUCH_SLOP = 8;
+    private static final float POINTER_LENGTH = 180;
+    private static final float RING_RADIUS = 200;
+    private static final float GRAB_HALF_WIDTH = 24;
+    private static final int MAX_AGE = 80;
+    private static final int LABEL_COUNT = DialGeometry.labelCount(MAX_AGE);
+
+    private RecordingTarget mTarget;
+    private LifeClockScrubber mScrubber;
+
+    @Before
+    public void setUp() {
+        mTarget = new RecordingTarget();
+        mScrubber = new LifeClockScrubber(mTarget, TOUCH_SLOP);
+        mScrubber.setGrabArea(POINTER_LENGTH, RING_RADIUS, GRAB_HALF_WIDTH);
+    }
+
+    /**
+     * 角度(正上方为0,顺时针)与半径对应的坐标
+     */
+    private static float x(float angle, float radius) {
+        return radius * (float) Math.sin(Math.toRadians(angle));
+    }
+
+    private static float y(float angle, float radius) {
+        return -radius * (float) Math.cos(Math.toRadians(angle));
+    }
+
+    private boolean begin(float angle, float radius, float pointerAngle) {
+        return mScrubber.begin(x(angle, radius), y(angle, radius), MAX_AGE, LABEL_COUNT, pointerAngle);
+    }
+
+    private void move(float angle, float radius) {
+        mScrubber.addSample(x(angle, radius), y(angle, radius));
+        mScrubber.flush();
+    }
+
+    @Test
+    public void begin_onRing_startsScrub() {
+        assertTrue(begin(100, RING_RADIUS + GRAB_HALF_WIDTH / 2, 30));
+        move(110, RING_RADIUS);
+        assertTrue(mScrubber.isScrubbing());
+        assertEquals(1, mTarget.mStarts);
+        assertEquals(110, mTarget.mAngle, 0.01F);
+    }
+
+    @Test
+    public void begin_onPointer_startsScrub() {
+        // 指针中段,略微偏离指针
+        assertTrue(begin(33, POINTER_LENGTH / 2, 30));
+        move(40, POINTER_LENGTH / 2);
+        assertTrue(mScrubber.isScrubbing());
+    }
+
+    @Test
+    public void begin_awayFromPointerAndRing_ignoresGesture() {
+        // 表盘内部远离指针的位置
+        assertFalse(begin(200, POINTER_LENGTH / 2, 30));
+        // 正方形View的角落,在圆环之外
+        assertFalse(begin(45, RING_RADIUS * 1.4F, 30));
+        move(60, RING_RADIUS);
+        move(90, RING_RADIUS);
+        assertFalse(mScrubber.isScrubbing());
+        assertFalse(mScrubber.end(false));
+        assertEquals(0, mTarget.mStarts);
+        assertEquals(0, mTarget.mEnds);
+    }
+
+    @Test
+    public void move_throughCenter_doesNotJump() {
+        assertTrue(begin(90, RING_RADIUS, 90));
+        move(90, 100);
+        move(90, 20);
+        float angle = mTarget.mAngle;
+        // 穿过中心附近的死区,到达对侧
+        move(90, TOUCH_SLOP / 2);
+        move(270, TOUCH_SLOP / 2);
+        move(270, 20);
+        assertEquals(angle, mTarget.mAngle, 0.01F);
+        // 之后按新的起点继续累加
+        move(280, 20);
+        assertEquals(angle + 10, mTarget.mAngle, 0.01F);
+    }
+
+    @Test
+    public void end_reportsCancel() {
+        assertTrue(begin(100, RING_RADIUS, 30));
+        move(110, RING_RADIUS);
+        assertTrue(mScrubber.end(true));
+        assertEquals(1, mTarget.mEnds);
+        assertTrue(mTarget.mCanceled);
+        assertFalse(mScrubber.isScrubbing());
+    }
+
+    private static final class RecordingTarget implements LifeClockScrubber.Target {
+        int mStarts;
+        int mEnds;
+        float mAngle;
+        boolean mCanceled;
+
+        @Override
+        public void onScrubStart() {
+            mStarts++;
+        }
+
+        @Override
+        public void onScrubMove(float angle, int age, boolean ageChanged) {
+            mAngle = angle;
+        }
+
+        @Override
+        public void onScrubEnd(int age, boolean canceled) {
+            mEnds++;
+            mCanceled = canceled;
+        }
+    }
+}
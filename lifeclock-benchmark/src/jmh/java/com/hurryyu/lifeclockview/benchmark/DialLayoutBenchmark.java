@@ -0,0 +1,33 @@
+package com.hurryyu.lifeclockview.benchmark;
+
+import com.hurryyu.lifeclockview.core.LabelLayout;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 年龄文本布局计算(尺寸或样式变化时执行一次)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DialLayoutBenchmark {
+    @Param({"5", "10", "20", "40", "60", "80", "100", "120"})
+    public int maxAge;
+
+    private final LabelLayout mLabelLayout = new LabelLayout();
+    private float mRadius = 480;
+
+    @Benchmark
+    public LabelLayout computeLabelLayout() {
+        mLabelLayout.compute(maxAge, mRadius);
+        return mLabelLayout;
+    }
+}
@@ -0,0 +1,46 @@
+package com.hurryyu.lifeclockview.benchmark;
+
+import com.hurryyu.lifeclockview.core.DialSvgWriter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.CharArrayWriter;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 服务端批量导出SVG,输出写入复用的缓冲区
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DialSvgBenchmark {
+    @Param({"40", "80", "120"})
+    public int maxAge;
+
+    private final DialSvgWriter mWriter = new DialSvgWriter();
+    private final CharArrayWriter mOut = new CharArrayWriter(4096);
+    private DialSvgWriter.Style mStyle;
+    private int mAge;
+
+    @Setup
+    public void setUp() {
+        mStyle = new DialSvgWriter.Style.Builder(3).setMaxAge(maxAge).build();
+    }
+
+    @Benchmark
+    public int writeSvg() throws IOException {
+        mOut.reset();
+        // 每次导出不同的年龄,避免百分比与颜色分组总是相同
+        mAge = mAge >= maxAge ? 0 : mAge + 1;
+        mWriter.write(mOut, mStyle, 1080, 1080, mAge);
+        return mOut.size();
+    }
+}
@@ -0,0 +1,62 @@
+package com.hurryyu.lifeclockview.benchmark;
+
+import com.hurryyu.lifeclockview.core.HitRegions;
+import com.hurryyu.lifeclockview.core.LabelLayout;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 点击测试,区域的位置与app中的编辑图标、0岁圆点一致,触摸点均匀分布在表盘上
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class HitTestBenchmark {
+    private static final int POINT_COUNT = 256;
+    private static final float RADIUS = 480;
+    private static final float LABEL_SIZE = 48;
+
+    @Param({"5", "10", "20", "40", "60", "80", "100", "120"})
+    public int maxAge;
+
+    private final HitRegions mHitRegions = new HitRegions(2);
+    private final float[] mPoints = new float[POINT_COUNT * 2];
+
+    @Setup
+    public void setUp() {
+        LabelLayout labelLayout = new LabelLayout();
+        labelLayout.compute(maxAge, RADIUS);
+        int last = labelLayout.getCount() - 1;
+        float x = labelLayout.getCenterX(last);
+        float y = labelLayout.getCenterY(last);
+        mHitRegions.set(0, x - LABEL_SIZE / 2, y - LABEL_SIZE / 2, x + LABEL_SIZE / 2, y + LABEL_SIZE / 2);
+        float zeroY = labelLayout.getCenterY(0) + LABEL_SIZE;
+        mHitRegions.set(1, -LABEL_SIZE, zeroY - LABEL_SIZE / 2, LABEL_SIZE, zeroY + LABEL_SIZE / 2);
+
+        Random random = new Random(maxAge);
+        for (int i = 0; i < mPoints.length; i++) {
+            mPoints[i] = (random.nextFloat() * 2 - 1) * RADIUS;
+        }
+    }
+
+    @Benchmark
+    public int hitTest() {
+        int hits = 0;
+        for (int i = 0; i < mPoints.length; i += 2) {
+            if (mHitRegions.hitTest(mPoints[i], mPoints[i + 1]) != HitRegions.NO_HIT) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+}
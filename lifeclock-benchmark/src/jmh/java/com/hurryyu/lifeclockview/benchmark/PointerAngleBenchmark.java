@@ -0,0 +1,43 @@
+package com.hurryyu.lifeclockview.benchmark;
+
+import com.hurryyu.lifeclockview.core.DialGeometry;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 百分比与指针角度计算(每次设置年龄时执行),每次调用遍历0岁到表盘最大年龄
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PointerAngleBenchmark {
+    @Param({"5", "10", "20", "40", "60", "80", "100", "120"})
+    public int maxAge;
+
+    private int mDialMaxAge;
+    private int mLabelCount;
+
+    @Setup
+    public void setUp() {
+        mDialMaxAge = DialGeometry.dialMaxAge(maxAge);
+        mLabelCount = DialGeometry.labelCount(maxAge);
+    }
+
+    @Benchmark
+    public void percentAndAngle(Blackhole blackhole) {
+        for (int age = 0; age <= mDialMaxAge; age++) {
+            blackhole.consume(DialGeometry.percent(age, mDialMaxAge));
+            blackhole.consume(DialGeometry.pointerAngle(age, mDialMaxAge, mLabelCount));
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.hurryyu.lifeclockview.benchmark;
+
+import com.hurryyu.lifeclockview.core.TickRing;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按月刻度的计算(尺寸或样式变化时执行一次),最大年龄120时共1441条刻度
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TickRingBenchmark {
+    @Param({"5", "10", "20", "40", "60", "80", "100", "120"})
+    public int maxAge;
+
+    private final TickRing mTickRing = new TickRing();
+    private float mRadius = 540;
+
+    @Benchmark
+    public TickRing computeMonthlyTicks() {
+        mTickRing.compute(maxAge, 1, mRadius, 12, 24);
+        return mTickRing;
+    }
+
+    @Benchmark
+    public int chooseIntervalMonths() {
+        return TickRing.chooseIntervalMonths(maxAge, 1, mRadius, 9);
+    }
+}
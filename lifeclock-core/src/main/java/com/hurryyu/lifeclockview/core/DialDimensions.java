@@ -0,0 +1,38 @@
+package com.hurryyu.lifeclockview.core;
+
+/**
+ * 表盘中固定尺寸(dp/sp)与文本,App中的布局与{@link DialSvgWriter}共用
+ */
+public final class DialDimensions {
+    public static final float PERCENT_STR_SIZE = 60;
+    public static final float PERCENT_TIPS_STR_SIZE = 14;
+    public static final float PERCENT_STR_MARGIN_DOT = 30;
+    public static final float PERCENT_TIPS_STR_MARGIN_PERCENT_STR = 14;
+    public static final float POINTER_LINE_PIVOT_OFFSET = 15;
+    public static final float POINTER_LINE_END_OFFSET = 18;
+    public static final float ZERO_AGE_TIPS_RECT_WIDTH = 50;
+    public static final float ZERO_AGE_TIPS_RECT_HEIGHT = 20;
+    public static final float ZERO_AGE_TIPS_RECT_CORNERS = 12;
+    public static final float ZERO_AGE_TIPS_TEXT_SIZE = 10;
+    public static final float ZERO_AGE_CLICK_EXTRA_BOTTOM = 10;
+    public static final float REMAINING_STR_SIZE = 12;
+    public static final float REMAINING_STR_MARGIN_PERCENT_TIPS = 8;
+    public static final float TICK_STROKE_WIDTH = 1;
+    public static final float TICK_OUTER_OFFSET = 2;
+    public static final float TICK_MINOR_LENGTH = 4;
+    public static final float TICK_MAJOR_LENGTH = 8;
+    /**
+     * 相邻刻度外端之间的最小距离,小于该值时降低刻度密度
+     */
+    public static final float TICK_MIN_SPACING = 3;
+    /**
+     * 拖动指针时,指针与年龄文本圆环两侧可以按下开始拖动的宽度(最小触摸区域48dp的一半)
+     */
+    public static final float SCRUB_GRAB_HALF_WIDTH = 24;
+
+    public static final String PERCENT_TIPS_STR = "一生已过";
+    public static final String ZERO_AGE_TIPS_STR = "出生日";
+
+    private DialDimensions() {
+    }
+}
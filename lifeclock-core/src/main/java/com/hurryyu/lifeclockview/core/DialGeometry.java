@@ -0,0 +1,120 @@
+package com.hurryyu.lifeclockview.core;
+
+/**
+ * 表盘的角度与百分比计算,不依赖Android
+ * <p>
+ * 表盘从0岁开始每隔{@link #AGE_STEP}岁显示一个年龄文本,指针从0岁转到最后一个年龄文本,
+ * 最后一个年龄文本与0岁之间的一段不计入指针的转动范围.
+ */
+public final class DialGeometry {
+    /**
+     * 表盘可显示的最大年龄
+     */
+    public static final int MAX_AGE = 120;
+    /**
+     * 表盘上每隔多少岁显示一个年龄文本
+     */
+    public static final int AGE_STEP = 5;
+    /**
+     * 指针正好指向年龄文本时,角度换算的浮点误差不应让该文本被算作未扫过
+     */
+    private static final float LABEL_ANGLE_TOLERANCE = 1E-3F;
+
+    private DialGeometry() {
+    }
+
+    /**
+     * 最大年龄对应的年龄文本数量(包含0岁)
+     */
+    public static int labelCount(int maxAge) {
+        return maxAge / AGE_STEP + 1;
+    }
+
+    /**
+     * 表盘上实际显示的最大年龄,即最后一个年龄文本
+     */
+    public static int dialMaxAge(int maxAge) {
+        return maxAge - maxAge % AGE_STEP;
+    }
+
+    /**
+     * 相邻两个年龄文本之间的角度
+     */
+    public static float angleStep(int labelCount) {
+        return 360F / labelCount;
+    }
+
+    /**
+     * 指针从0岁转到最后一个年龄文本的总角度(需要减去最后一段,比如0~80,需要忽略80~0的角度)
+     */
+    public static float sweepAngle(int labelCount) {
+        return 360 - 360F / labelCount;
+    }
+
+    /**
+     * 一生已过的比例
+     */
+    public static float ratio(int age, int dialMaxAge) {
+        return age / (float) dialMaxAge;
+    }
+
+    /**
+     * 一生已过的百分比(向下取整)
+     */
+    public static int percent(int age, int dialMaxAge) {
+        return (int) (ratio(age, dialMaxAge) * 100);
+    }
+
+    /**
+     * 年龄对应的指针角度,0岁指向正上方,顺时针为正
+     */
+    public static float pointerAngle(int age, int dialMaxAge, int labelCount) {
+        return sweepAngle(labelCount) * ratio(age, dialMaxAge);
+    }
+
+    /**
+     * 指针已扫过(包括正好指向)的年龄文本数量,0岁总是算作已扫过
+     */
+    public static int pastLabelCount(float angle, int labelCount) {
+        int count = (int) (angle / angleStep(labelCount) + LABEL_ANGLE_TOLERANCE) + 1;
+        return count < 1 ? 1 : count > labelCount ? labelCount : count;
+    }
+
+    /**
+     * 点相对于表盘中心的角度,与指针角度的方向一致:正上方为0,顺时针增加,范围[0, 360)
+     *
+     * @param x 相对于表盘中心的x坐标
+     * @param y 相对于表盘中心的y坐标(向下为正)
+     */
+    public static float touchAngle(float x, float y) {
+        float angle = (float) Math.toDegrees(Math.atan2(x, -y));
+        return angle < 0 ? angle + 360 : angle;
+    }
+
+    /**
+     * 将角度差规范到(-180, 180]
+     */
+    public static float normalizeDelta(float delta) {
+        if (delta > 180) {
+            return delta - 360;
+        }
+        if (delta <= -180) {
+            return delta + 360;
+        }
+        return delta;
+    }
+
+    /**
+     * 指针角度对应的年龄(四舍五入),超出[0, sweepAngle]时取最近的一端
+     */
+    public static int ageAtAngle(float angle, int dialMaxAge, int labelCount) {
+        float sweep = sweepAngle(labelCount);
+        if (angle <= 0) {
+            return 0;
+        }
+        if (angle >= sweep) {
+            return dialMaxAge;
+        }
+        return Math.round(angle / sweep * dialMaxAge);
+    }
+}
@@ -0,0 +1,480 @@
+package com.hurryyu.lifeclockview.core;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * 将表盘导出为SVG,不依赖Android
+ * <p>
+ * 按App中的布局规则输出年龄文本、0岁圆点与出生日说明、中心圆点与指针以及百分比文本(指针动画结束后的状态),
+ * 元素边生成边写入Writer,不构建中间文档;数字直接格式化到内部缓冲区,重复导出时除Writer本身外不产生新对象,
+ * 服务端可以用同一个实例连续导出大量表盘.
+ * JVM上无法按Android字体测量文本:水平方向由text-anchor居中,竖直方向按Android默认字体
+ * (Roboto与Noto Sans CJK)的度量比例计算基线,浏览器中的字体不同时文本位置可能与App略有差异.
+ * 宽高不同时在中间绘制边长为较短边的正方形表盘,与LifeClockImageRenderer一致.
+ * 编辑图标与实时模式的剩余时间文本只在App中显示,不导出.
+ * 不是线程安全的,多个线程需要各自创建实例.
+ */
+public final class DialSvgWriter {
+    /**
+     * Roboto的FontMetrics.top/bottom,相对于字号
+     */
+    private static final float FONT_TOP = -1.056F;
+    private static final float FONT_BOTTOM = 0.271F;
+    /**
+     * 数字与%的文本边界高度(Paint.getTextBounds),相对于字号
+     */
+    private static final float DIGIT_HEIGHT = 0.73F;
+    /**
+     * 中文文本的边界高度,相对于字号
+     */
+    private static final float CJK_HEIGHT = 0.88F;
+
+    private static final int PERCENT_STR_COLOR = 0xFF333333;
+    private static final int PERCENT_TIPS_STR_COLOR = 0xFFC5C5C5;
+    private static final int ZERO_AGE_TIPS_TEXT_COLOR = 0xFFFFFFFF;
+    private static final int OPAQUE = 0xFF;
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+    private final LabelLayout mLabelLayout = new LabelLayout();
+    private final char[] mNumberBuffer = new char[24];
+    private Writer mOut;
+
+    /**
+     * 导出不显示出生日说明的表盘
+     *
+     * @see #write(Writer, Style, int, int, int, boolean)
+     */
+    public void write(Writer out, Style style, int width, int height, int age) throws IOException {
+        write(out, style, width, height, age, false);
+    }
+
+    /**
+     * @param out             输出,不会被关闭或flush
+     * @param width           宽度(px)
+     * @param height          高度(px)
+     * @param age             当前年龄
+     * @param showZeroAgeTips 是否显示出生日说明
+     */
+    public void write(Writer out, Style style, int width, int height, int age, boolean showZeroAgeTips)
+            throws IOException {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("size must be > 0, was " + width + "x" + height);
+        }
+        if (age < 0) {
+            throw new IllegalArgumentException("age must be >= 0, was " + age);
+        }
+        mOut = out;
+        try {
+            int labelCount = DialGeometry.labelCount(style.mMaxAge);
+            int dialMaxAge = DialGeometry.dialMaxAge(style.mMaxAge);
+            float pointerAngle = DialGeometry.pointerAngle(age, dialMaxAge, labelCount);
+            int side = Math.min(width, height);
+
+            out.write("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"");
+            writeInt(width);
+            out.write("\" height=\"");
+            writeInt(height);
+            out.write("\" viewBox=\"0 0 ");
+            writeInt(width);
+            out.write(' ');
+            writeInt(height);
+            out.write("\" font-family=\"sans-serif\"><g transform=\"translate(");
+            writeNumber(width / 2F);
+            out.write(' ');
+            writeNumber(height / 2F);
+            out.write(")\">");
+
+            writeAgeText(style, side, labelCount, pointerAngle);
+            writeZeroAgeDownDot(style, side, showZeroAgeTips);
+            if (pointerAngle > 0) {
+                writeCenterCircle(style);
+                writePointerLine(style, side, pointerAngle);
+                writePercent(style, DialGeometry.percent(age, dialMaxAge),
+                        !(pointerAngle > 90 && pointerAngle < 270));
+            }
+            out.write("</g></svg>");
+        } finally {
+            mOut = null;
+        }
+    }
+
+    /**
+     * 已扫过与未扫过的年龄文本各放在一个分组中,共用字号与颜色属性
+     */
+    private void writeAgeText(Style style, int side, int labelCount, float pointerAngle) throws IOException {
+        LabelLayout layout = mLabelLayout;
+        layout.compute((labelCount - 1) * DialGeometry.AGE_STEP, side / 2F - style.mAgeTextOffset);
+        float offsetY = (FONT_TOP + FONT_BOTTOM) / 2F * style.mAgeTextSize;
+        int pastCount = DialGeometry.pastLabelCount(pointerAngle, labelCount);
+        writeTextGroupStart(style.mAgeTextSize, true, style.mPastAgeTextColor);
+        for (int i = 0; i < pastCount; i++) {
+            writeLabel(layout, i, offsetY);
+        }
+        mOut.write("</g>");
+        if (pastCount < labelCount) {
+            writeTextGroupStart(style.mAgeTextSize, true, style.mAgeTextColor);
+            for (int i = pastCount; i < labelCount; i++) {
+                writeLabel(layout, i, offsetY);
+            }
+            mOut.write("</g>");
+        }
+    }
+
+    private void writeLabel(LabelLayout layout, int index, float offsetY) throws IOException {
+        Writer out = mOut;
+        out.write("<text x=\"");
+        writeNumber(layout.getCenterX(index));
+        out.write("\" y=\"");
+        writeNumber(layout.getCenterY(index) - offsetY);
+        out.write("\">");
+        writeInt(layout.getAge(index));
+        out.write("</text>");
+    }
+
+    private void writeZeroAgeDownDot(Style style, int side, boolean showZeroAgeTips) throws IOException {
+        Writer out = mOut;
+        float radius = style.mZeroAgeDownCircleRadius;
+        float centerY = -side / 2F + style.mAgeTextOffset + DIGIT_HEIGHT * style.mAgeTextSize / 2F +
+                radius + style.mZeroAgeDownCircleOffset;
+        writeCircle(centerY, radius, style.mZeroAgeDownCircleColor);
+        if (!showZeroAgeTips) {
+            return;
+        }
+        float density = style.mDensity;
+        float rectWidth = DialDimensions.ZERO_AGE_TIPS_RECT_WIDTH * density;
+        float rectHeight = DialDimensions.ZERO_AGE_TIPS_RECT_HEIGHT * density;
+        float rectBottom = centerY - radius;
+        // 与Canvas.drawRoundRect一致,圆角超过矩形一半时按比例缩小
+        float corners = DialDimensions.ZERO_AGE_TIPS_RECT_CORNERS * density;
+        corners = Math.min(corners, Math.min(rectWidth, rectHeight) / 2F);
+        out.write("<rect x=\"");
+        writeNumber(-rectWidth / 2F);
+        out.write("\" y=\"");
+        writeNumber(rectBottom - rectHeight);
+        out.write("\" width=\"");
+        writeNumber(rectWidth);
+        out.write("\" height=\"");
+        writeNumber(rectHeight);
+        out.write("\" rx=\"");
+        writeNumber(corners);
+        out.write('"');
+        writeColor("fill", style.mZeroAgeTipsRectColor);
+        out.write("/>");
+
+        float textSize = DialDimensions.ZERO_AGE_TIPS_TEXT_SIZE * density;
+        writeTextGroupStart(textSize, false, ZERO_AGE_TIPS_TEXT_COLOR);
+        writeText(DialDimensions.ZERO_AGE_TIPS_STR,
+                rectBottom - rectHeight / 2F - (FONT_TOP + FONT_BOTTOM) / 2F * textSize);
+        out.write("</g>");
+    }
+
+    private void writeCenterCircle(Style style) throws IOException {
+        writeCircle(0, style.mCenterCircleRadius, style.mCenterCircleColor);
+    }
+
+    /**
+     * 指针以表盘中心为轴旋转,与App中先平移再旋转的结果相同
+     */
+    private void writePointerLine(Style style, int side, float pointerAngle) throws IOException {
+        Writer out = mOut;
+        float pivotOffset = DialDimensions.POINTER_LINE_PIVOT_OFFSET * style.mDensity;
+        float endY = -side / 2F - DialDimensions.POINTER_LINE_END_OFFSET * style.mDensity + style.mAgeTextOffset;
+        out.write("<line x1=\"0\" y1=\"");
+        writeNumber(pivotOffset);
+        out.write("\" x2=\"0\" y2=\"");
+        writeNumber(pivotOffset + endY);
+        out.write("\" transform=\"rotate(");
+        writeNumber(pointerAngle);
+        out.write(")\" stroke-width=\"");
+        writeNumber(style.mPointerLineWidth);
+        out.write("\" stroke-linecap=\"round\"");
+        writeColor("stroke", style.mPointerLineColor);
+        out.write("/>");
+    }
+
+    private void writePercent(Style style, int percent, boolean isDrawDown) throws IOException {
+        Writer out = mOut;
+        float density = style.mDensity;
+        float percentTextSize = DialDimensions.PERCENT_STR_SIZE * density;
+        float percentTipsTextSize = DialDimensions.PERCENT_TIPS_STR_SIZE * density;
+        float marginDot = DialDimensions.PERCENT_STR_MARGIN_DOT * density;
+        float tipsMargin = DialDimensions.PERCENT_TIPS_STR_MARGIN_PERCENT_STR * density;
+        float percentHeight = DIGIT_HEIGHT * percentTextSize;
+        float tipsHeight = CJK_HEIGHT * percentTipsTextSize;
+
+        writeTextGroupStart(percentTextSize, true, PERCENT_STR_COLOR);
+        out.write("<text x=\"0\" y=\"");
+        writeNumber(isDrawDown ? percentHeight + marginDot : -marginDot);
+        out.write("\">");
+        writeInt(percent);
+        out.write("%</text></g>");
+
+        writeTextGroupStart(percentTipsTextSize, false, PERCENT_TIPS_STR_COLOR);
+        writeText(DialDimensions.PERCENT_TIPS_STR, isDrawDown ?
+                percentHeight + marginDot + tipsMargin + tipsHeight :
+                -marginDot - percentHeight - tipsMargin);
+        out.write("</g>");
+    }
+
+    // ---------------------------------------------------------------- 元素
+
+    private void writeTextGroupStart(float textSize, boolean bold, int color) throws IOException {
+        Writer out = mOut;
+        out.write("<g font-size=\"");
+        writeNumber(textSize);
+        out.write(bold ? "\" font-weight=\"bold\"" : "\"");
+        out.write(" text-anchor=\"middle\"");
+        writeColor("fill", color);
+        out.write('>');
+    }
+
+    /**
+     * 水平居中于x = 0的文本,text不需要转义
+     */
+    private void writeText(String text, float baselineY) throws IOException {
+        Writer out = mOut;
+        out.write("<text x=\"0\" y=\"");
+        writeNumber(baselineY);
+        out.write("\">");
+        out.write(text);
+        out.write("</text>");
+    }
+
+    private void writeCircle(float centerY, float radius, int color) throws IOException {
+        Writer out = mOut;
+        out.write("<circle cx=\"0\" cy=\"");
+        writeNumber(centerY);
+        out.write("\" r=\"");
+        writeNumber(radius);
+        out.write('"');
+        writeColor("fill", color);
+        out.write("/>");
+    }
+
+    /**
+     * 写入颜色属性,透明度不为255时额外写入opacity属性
+     */
+    private void writeColor(String name, int color) throws IOException {
+        Writer out = mOut;
+        out.write(' ');
+        out.write(name);
+        out.write("=\"#");
+        for (int shift = 20; shift >= 0; shift -= 4) {
+            out.write(HEX_DIGITS[(color >>> shift) & 0xF]);
+        }
+        out.write('"');
+        int alpha = color >>> 24;
+        if (alpha != OPAQUE) {
+            out.write(' ');
+            out.write(name);
+            out.write("-opacity=\"");
+            writeNumber(alpha / (float) OPAQUE);
+            out.write('"');
+        }
+    }
+
+    // ---------------------------------------------------------------- 数字
+
+    private void writeInt(long value) throws IOException {
+        char[] buffer = mNumberBuffer;
+        int start = formatDigits(value < 0 ? -value : value, buffer.length);
+        if (value < 0) {
+            buffer[--start] = '-';
+        }
+        mOut.write(buffer, start, buffer.length - start);
+    }
+
+    /**
+     * 保留两位小数并去掉末尾的0,不写出指数形式
+     */
+    private void writeNumber(float value) throws IOException {
+        long scaled = Math.round(value * 100.0);
+        if (scaled == 0) {
+            mOut.write('0');
+            return;
+        }
+        boolean negative = scaled < 0;
+        long abs = negative ? -scaled : scaled;
+        char[] buffer = mNumberBuffer;
+        int end = buffer.length;
+        int fraction = (int) (abs % 100);
+        if (fraction != 0) {
+            if (fraction % 10 == 0) {
+                buffer[--end] = (char) ('0' + fraction / 10);
+            } else {
+                buffer[--end] = (char) ('0' + fraction % 10);
+                buffer[--end] = (char) ('0' + fraction / 10);
+            }
+            buffer[--end] = '.';
+        }
+        int start = formatDigits(abs / 100, end);
+        if (negative) {
+            buffer[--start] = '-';
+        }
+        mOut.write(buffer, start, buffer.length - start);
+    }
+
+    /**
+     * 将非负整数从end往前写入缓冲区
+     *
+     * @return 第一个字符的位置
+     */
+    private int formatDigits(long value, int end) {
+        char[] buffer = mNumberBuffer;
+        int start = end;
+        do {
+            buffer[--start] = (char) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        return start;
+    }
+
+    /**
+     * 导出时使用的样式,所有尺寸均为px.默认值与App中LifeClockStyle的默认值相同
+     */
+    public static final class Style {
+        private final float mDensity;
+        private final int mAgeTextColor;
+        private final int mPastAgeTextColor;
+        private final float mAgeTextSize;
+        private final float mAgeTextOffset;
+        private final float mZeroAgeDownCircleRadius;
+        private final int mZeroAgeDownCircleColor;
+        private final float mZeroAgeDownCircleOffset;
+        private final float mCenterCircleRadius;
+        private final int mCenterCircleColor;
+        private final float mPointerLineWidth;
+        private final int mPointerLineColor;
+        private final int mZeroAgeTipsRectColor;
+        private final int mMaxAge;
+
+        private Style(Builder builder) {
+            mDensity = builder.mDensity;
+            mAgeTextColor = builder.mAgeTextColor;
+            mPastAgeTextColor = builder.mPastAgeTextColor;
+            mAgeTextSize = builder.mAgeTextSize;
+            mAgeTextOffset = builder.mAgeTextOffset;
+            mZeroAgeDownCircleRadius = builder.mZeroAgeDownCircleRadius;
+            mZeroAgeDownCircleColor = builder.mZeroAgeDownCircleColor;
+            mZeroAgeDownCircleOffset = builder.mZeroAgeDownCircleOffset;
+            mCenterCircleRadius = builder.mCenterCircleRadius;
+            mCenterCircleColor = builder.mCenterCircleColor;
+            mPointerLineWidth = builder.mPointerLineWidth;
+            mPointerLineColor = builder.mPointerLineColor;
+            mZeroAgeTipsRectColor = builder.mZeroAgeTipsRectColor;
+            mMaxAge = builder.mMaxAge;
+        }
+
+        public static final class Builder {
+            private final float mDensity;
+            private int mAgeTextColor = 0xFF333333;
+            private int mPastAgeTextColor = 0xFFC5C5C5;
+            private float mAgeTextSize;
+            private float mAgeTextOffset;
+            private float mZeroAgeDownCircleRadius;
+            private int mZeroAgeDownCircleColor = 0xFFF7C747;
+            private float mZeroAgeDownCircleOffset;
+            private float mCenterCircleRadius;
+            private int mCenterCircleColor = 0xFF000000;
+            private float mPointerLineWidth;
+            private int mPointerLineColor = 0xFF000000;
+            private int mZeroAgeTipsRectColor = 0xFFF7C747;
+            private int mMaxAge = 80;
+
+            /**
+             * @param density 每dp对应的px,sp按相同比例换算(不考虑字体缩放)
+             */
+            public Builder(float density) {
+                if (!(density > 0) || Float.isInfinite(density)) {
+                    throw new IllegalArgumentException("density must be > 0, was " + density);
+                }
+                mDensity = density;
+                mAgeTextSize = 22 * density;
+                mAgeTextOffset = 24 * density;
+                mZeroAgeDownCircleRadius = 4 * density;
+                mZeroAgeDownCircleOffset = 5 * density;
+                mCenterCircleRadius = 6 * density;
+                mPointerLineWidth = 4 * density;
+            }
+
+            public Builder setAgeTextColor(int ageTextColor) {
+                mAgeTextColor = ageTextColor;
+                return this;
+            }
+
+            public Builder setPastAgeTextColor(int pastAgeTextColor) {
+                mPastAgeTextColor = pastAgeTextColor;
+                return this;
+            }
+
+            public Builder setAgeTextSize(float ageTextSize) {
+                mAgeTextSize = ageTextSize;
+                return this;
+            }
+
+            public Builder setAgeTextOffset(float ageTextOffset) {
+                mAgeTextOffset = ageTextOffset;
+                return this;
+            }
+
+            public Builder setZeroAgeDownCircleRadius(float zeroAgeDownCircleRadius) {
+                mZeroAgeDownCircleRadius = zeroAgeDownCircleRadius;
+                return this;
+            }
+
+            public Builder setZeroAgeDownCircleColor(int zeroAgeDownCircleColor) {
+                mZeroAgeDownCircleColor = zeroAgeDownCircleColor;
+                return this;
+            }
+
+            public Builder setZeroAgeDownCircleOffset(float zeroAgeDownCircleOffset) {
+                mZeroAgeDownCircleOffset = zeroAgeDownCircleOffset;
+                return this;
+            }
+
+            public Builder setCenterCircleRadius(float centerCircleRadius) {
+                mCenterCircleRadius = centerCircleRadius;
+                return this;
+            }
+
+            public Builder setCenterCircleColor(int centerCircleColor) {
+                mCenterCircleColor = centerCircleColor;
+                return this;
+            }
+
+            public Builder setPointerLineWidth(float pointerLineWidth) {
+                mPointerLineWidth = pointerLineWidth;
+                return this;
+            }
+
+            public Builder setPointerLineColor(int pointerLineColor) {
+                mPointerLineColor = pointerLineColor;
+                return this;
+            }
+
+            public Builder setZeroAgeTipsRectColor(int zeroAgeTipsRectColor) {
+                mZeroAgeTipsRectColor = zeroAgeTipsRectColor;
+                return this;
+            }
+
+            /**
+             * 超过{@link DialGeometry#MAX_AGE}时取{@link DialGeometry#MAX_AGE}
+             */
+            public Builder setMaxAge(int maxAge) {
+                mMaxAge = maxAge > DialGeometry.MAX_AGE ? DialGeometry.MAX_AGE : maxAge;
+                return this;
+            }
+
+            /**
+             * @throws IllegalArgumentException 最大年龄小于{@link DialGeometry#AGE_STEP}
+             */
+            public Style build() {
+                if (mMaxAge < DialGeometry.AGE_STEP) {
+                    throw new IllegalArgumentException("maxAge must be >= " + DialGeometry.AGE_STEP + ", was " + mMaxAge);
+                }
+                return new Style(this);
+            }
+        }
+    }
+}
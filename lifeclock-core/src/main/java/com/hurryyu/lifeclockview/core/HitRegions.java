@@ -0,0 +1,47 @@
+package com.hurryyu.lifeclockview.core;
+
+/**
+ * 固定数量的矩形点击区域
+ * <p>
+ * 所有矩形保存在同一个float数组中(left, top, right, bottom),重新布局时原地更新,
+ * 点击测试时不产生新对象.包含关系与android.graphics.RectF#contains一致:左上边界包含,右下边界不包含.
+ */
+public final class HitRegions {
+    public static final int NO_HIT = -1;
+
+    private final float[] mBounds;
+
+    public HitRegions(int count) {
+        mBounds = new float[count * 4];
+    }
+
+    public int getCount() {
+        return mBounds.length / 4;
+    }
+
+    public void set(int index, float left, float top, float right, float bottom) {
+        int offset = index * 4;
+        mBounds[offset] = left;
+        mBounds[offset + 1] = top;
+        mBounds[offset + 2] = right;
+        mBounds[offset + 3] = bottom;
+    }
+
+    /**
+     * @return 包含该点的第一个区域的索引,没有时返回{@link #NO_HIT}
+     */
+    public int hitTest(float x, float y) {
+        float[] bounds = mBounds;
+        for (int offset = 0; offset < bounds.length; offset += 4) {
+            float left = bounds[offset];
+            float top = bounds[offset + 1];
+            float right = bounds[offset + 2];
+            float bottom = bounds[offset + 3];
+            if (left < right && top < bottom &&
+                    x >= left && x < right && y >= top && y < bottom) {
+                return offset / 4;
+            }
+        }
+        return NO_HIT;
+    }
+}
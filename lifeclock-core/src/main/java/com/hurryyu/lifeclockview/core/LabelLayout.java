@@ -0,0 +1,56 @@
+package com.hurryyu.lifeclockview.core;
+
+/**
+ * 年龄文本在表盘上的位置
+ * <p>
+ * 坐标系以表盘中心为原点,y轴向下.保存每个年龄文本中心点的坐标,
+ * 数组只在年龄文本数量变化时重新分配,重复计算时不会产生新对象.
+ */
+public final class LabelLayout {
+    private int mCount;
+    private float mAngleStep;
+    private int[] mAges = new int[0];
+    private float[] mCenterX = new float[0];
+    private float[] mCenterY = new float[0];
+
+    /**
+     * @param maxAge 最大年龄
+     * @param radius 年龄文本中心所在圆的半径
+     */
+    public void compute(int maxAge, float radius) {
+        int count = DialGeometry.labelCount(maxAge);
+        if (mAges.length != count) {
+            mAges = new int[count];
+            mCenterX = new float[count];
+            mCenterY = new float[count];
+        }
+        mCount = count;
+        mAngleStep = DialGeometry.angleStep(count);
+        for (int i = 0; i < count; i++) {
+            double radians = Math.toRadians(mAngleStep * i);
+            mAges[i] = i * DialGeometry.AGE_STEP;
+            mCenterX[i] = radius * (float) Math.sin(radians);
+            mCenterY[i] = -radius * (float) Math.cos(radians);
+        }
+    }
+
+    public int getCount() {
+        return mCount;
+    }
+
+    public float getAngleStep() {
+        return mAngleStep;
+    }
+
+    public int getAge(int index) {
+        return mAges[index];
+    }
+
+    public float getCenterX(int index) {
+        return mCenterX[index];
+    }
+
+    public float getCenterY(int index) {
+        return mCenterY[index];
+    }
+}
@@ -0,0 +1,129 @@
+package com.hurryyu.lifeclockview.core;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * 生命表:按地区、性别与年龄查询剩余预期寿命
+ * <p>
+ * 数据直接从ByteBuffer(通常是内存映射的文件)中读取,不复制到Java数组,
+ * 每次查询只是一次下标计算加两次读取.文件格式(大端):
+ * <pre>
+ * int    'LCLT'
+ * short  版本号(1)
+ * short  年龄数量(年龄0 ~ 数量-1)
+ * short  性别数量(0男,1女)
+ * short  地区数量
+ * 地区数量 * 2字节  ISO 3166-1两位地区码,第一个地区为未知地区时的默认值
+ * 地区 * 性别 * 年龄 个无符号short  剩余预期寿命,单位为1/100年
+ * </pre>
+ */
+public final class LifeTable {
+    public static final int SEX_MALE = 0;
+    public static final int SEX_FEMALE = 1;
+
+    private static final int MAGIC = 0x4C434C54;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 12;
+    private static final float UNITS_PER_YEAR = 100F;
+
+    private final ByteBuffer mBuffer;
+    private final int mAgeCount;
+    private final int mSexCount;
+    private final String[] mRegions;
+    private final int mValuesOffset;
+
+    /**
+     * @throws IllegalArgumentException 数据格式不正确
+     */
+    public LifeTable(ByteBuffer buffer) {
+        ByteBuffer data = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+        if (data.remaining() < HEADER_SIZE || data.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("not a life table");
+        }
+        if (data.getShort(4) != VERSION) {
+            throw new IllegalArgumentException("unsupported life table version " + data.getShort(4));
+        }
+        mAgeCount = data.getShort(6);
+        mSexCount = data.getShort(8);
+        int regionCount = data.getShort(10);
+        if (mAgeCount <= 0 || mSexCount <= SEX_FEMALE || regionCount <= 0) {
+            throw new IllegalArgumentException("empty life table");
+        }
+        mRegions = new String[regionCount];
+        int offset = HEADER_SIZE;
+        for (int i = 0; i < regionCount; i++, offset += 2) {
+            mRegions[i] = new String(new char[]{(char) data.get(offset), (char) data.get(offset + 1)});
+        }
+        mValuesOffset = offset;
+        if (data.limit() < mValuesOffset + regionCount * mSexCount * mAgeCount * 2) {
+            throw new IllegalArgumentException("truncated life table");
+        }
+        mBuffer = data;
+    }
+
+    public int getRegionCount() {
+        return mRegions.length;
+    }
+
+    /**
+     * 表中的最大年龄,更大的年龄按该年龄查询
+     */
+    public int getMaxAge() {
+        return mAgeCount - 1;
+    }
+
+    /**
+     * @param region ISO 3166-1两位地区码(不区分大小写)
+     * @return 地区下标,表中没有该地区时返回默认地区(0)
+     */
+    public int indexOfRegion(String region) {
+        if (region != null) {
+            for (int i = 0; i < mRegions.length; i++) {
+                if (mRegions[i].equalsIgnoreCase(region)) {
+                    return i;
+                }
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * 剩余预期寿命,相邻整数年龄之间线性插值
+     *
+     * @param regionIndex 见{@link #indexOfRegion(String)}
+     * @param sex         {@link #SEX_MALE}或{@link #SEX_FEMALE}
+     * @param age         精确年龄(年),小于0时按0计算
+     * @return 剩余预期寿命(年)
+     */
+    public float getRemainingYears(int regionIndex, int sex, float age) {
+        if (regionIndex < 0 || regionIndex >= mRegions.length) {
+            throw new IllegalArgumentException("regionIndex out of range: " + regionIndex);
+        }
+        if (sex != SEX_MALE && sex != SEX_FEMALE) {
+            throw new IllegalArgumentException("unknown sex " + sex);
+        }
+        int last = mAgeCount - 1;
+        if (!(age > 0)) {
+            age = 0;
+        } else if (age > last) {
+            age = last;
+        }
+        int floor = (int) age;
+        int base = mValuesOffset + ((regionIndex * mSexCount + sex) * mAgeCount + floor) * 2;
+        float lower = (mBuffer.getShort(base) & 0xFFFF) / UNITS_PER_YEAR;
+        if (floor == last) {
+            return lower;
+        }
+        float upper = (mBuffer.getShort(base + 2) & 0xFFFF) / UNITS_PER_YEAR;
+        return lower + (upper - lower) * (age - floor);
+    }
+
+    /**
+     * 预期寿命,即当前年龄加剩余预期寿命
+     */
+    public float getExpectedAge(int regionIndex, int sex, float age) {
+        float exactAge = age > 0 ? age : 0;
+        return exactAge + getRemainingYears(regionIndex, sex, exactAge);
+    }
+}
@@ -0,0 +1,120 @@
+package com.hurryyu.lifeclockview.core;
+
+/**
+ * 表盘外圈的刻度
+ * <p>
+ * 刻度与指针使用相同的角度换算:0岁指向正上方,最后一个年龄文本对应{@link DialGeometry#sweepAngle(int)}.
+ * 所有刻度线段按年龄从小到大依次保存在同一个float数组中(每条线段4个float,可直接用于Canvas.drawLines),
+ * 因此指针已扫过的刻度总是数组的前半段,绘制时按颜色分两段提交即可.
+ * 相邻刻度在外圈上的间距小于最小间距时自动降低密度(按月 → 季度 → 半年 → 年 → 五年).
+ * 每一级间隔都能整除年龄文本的间隔(5年),年龄文本所在的位置总有一条主刻度.
+ * 数组只在刻度数量变化时重新分配.
+ */
+public final class TickRing {
+    public static final int MONTHS_PER_YEAR = 12;
+    /**
+     * 可选的刻度间隔(月),从密到疏,都是{@link #LABEL_INTERVAL_MONTHS}的约数
+     */
+    private static final int[] INTERVAL_MONTHS = {1, 3, 6, 12, 60};
+    private static final int LABEL_INTERVAL_MONTHS = DialGeometry.AGE_STEP * MONTHS_PER_YEAR;
+    /**
+     * 指针正好停在刻度上时,角度换算的浮点误差不应让该刻度被算作未扫过
+     */
+    private static final float ANGLE_TOLERANCE = 1E-3F;
+
+    private int mCount;
+    private int mIntervalMonths;
+    private float mTickAngle;
+    private float[] mLines = new float[0];
+
+    /**
+     * 选择满足最小间距的刻度间隔
+     *
+     * @param dialMaxAge        表盘上最后一个年龄文本对应的年龄
+     * @param minIntervalMonths 期望的最密间隔(月),例如按月为1、按年为12
+     * @param radius            刻度外端所在圆的半径(px)
+     * @param minSpacing        相邻刻度外端之间的最小距离(px)
+     * @return 刻度间隔(月),即使最疏的间隔也不满足最小间距时返回最疏的间隔
+     */
+    public static int chooseIntervalMonths(int dialMaxAge, int minIntervalMonths, float radius, float minSpacing) {
+        int labelCount = DialGeometry.labelCount(dialMaxAge);
+        double radiansPerMonth = Math.toRadians(DialGeometry.sweepAngle(labelCount)) / (dialMaxAge * MONTHS_PER_YEAR);
+        for (int interval : INTERVAL_MONTHS) {
+            if (interval < minIntervalMonths) {
+                continue;
+            }
+            if (radius * radiansPerMonth * interval >= minSpacing) {
+                return interval;
+            }
+        }
+        return INTERVAL_MONTHS[INTERVAL_MONTHS.length - 1];
+    }
+
+    /**
+     * @param dialMaxAge     表盘上最后一个年龄文本对应的年龄
+     * @param intervalMonths 刻度间隔(月),见{@link #chooseIntervalMonths(int, int, float, float)},需要整除5年(60个月)
+     * @param outerRadius    刻度外端所在圆的半径
+     * @param minorLength    普通刻度的长度
+     * @param majorLength    主刻度的长度(间隔小于一年时为整年,否则为年龄文本所在的位置)
+     */
+    public void compute(int dialMaxAge, int intervalMonths, float outerRadius, float minorLength, float majorLength) {
+        if (intervalMonths <= 0 || LABEL_INTERVAL_MONTHS % intervalMonths != 0) {
+            throw new IllegalArgumentException("intervalMonths must divide " + LABEL_INTERVAL_MONTHS + ", was " + intervalMonths);
+        }
+        int totalMonths = dialMaxAge * MONTHS_PER_YEAR;
+        int count = totalMonths / intervalMonths + 1;
+        if (mLines.length != count * 4) {
+            mLines = new float[count * 4];
+        }
+        mCount = count;
+        mIntervalMonths = intervalMonths;
+        int majorMonths = intervalMonths < MONTHS_PER_YEAR ? MONTHS_PER_YEAR : LABEL_INTERVAL_MONTHS;
+        float degreesPerMonth = totalMonths == 0 ? 0 :
+                DialGeometry.sweepAngle(DialGeometry.labelCount(dialMaxAge)) / totalMonths;
+        mTickAngle = degreesPerMonth * intervalMonths;
+        double radiansPerMonth = Math.toRadians(degreesPerMonth);
+        float[] lines = mLines;
+        for (int i = 0, j = 0; i < count; i++, j += 4) {
+            int months = i * intervalMonths;
+            double radians = radiansPerMonth * months;
+            float sin = (float) Math.sin(radians);
+            float cos = (float) Math.cos(radians);
+            float innerRadius = outerRadius - (months % majorMonths == 0 ? majorLength : minorLength);
+            lines[j] = outerRadius * sin;
+            lines[j + 1] = -outerRadius * cos;
+            lines[j + 2] = innerRadius * sin;
+            lines[j + 3] = -innerRadius * cos;
+        }
+    }
+
+    public int getCount() {
+        return mCount;
+    }
+
+    public int getIntervalMonths() {
+        return mIntervalMonths;
+    }
+
+    /**
+     * 所有刻度线段(x0, y0, x1, y1),有效长度为getCount() * 4,不要修改
+     */
+    public float[] getLines() {
+        return mLines;
+    }
+
+    /**
+     * 指针角度已扫过(包括正好指向)的刻度数量
+     *
+     * @param angle 指针角度,与{@link DialGeometry#pointerAngle(int, int, int)}一致
+     */
+    public int countAtAngle(float angle) {
+        if (angle < 0 || mCount == 0) {
+            return 0;
+        }
+        if (mTickAngle == 0) {
+            return mCount;
+        }
+        int count = (int) (angle / mTickAngle + ANGLE_TOLERANCE) + 1;
+        return count > mCount ? mCount : count;
+    }
+}
@@ -0,0 +1,281 @@
+package com.hurryyu.lifeclockview.core;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.InputSource;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class DialSvgWriterTest {
+    private static final String SVG_NS = "http://www.w3.org/2000/svg";
+    private static final int PAST_COLOR = 0xFFC5C5C5;
+    private static final int FUTURE_COLOR = 0xFF333333;
+    /**
+     * density为1时年龄文本的默认字号
+     */
+    private static final String AGE_TEXT_SIZE = "22";
+
+    private DialSvgWriter mWriter;
+    private DialSvgWriter.Style.Builder mStyleBuilder;
+
+    @Before
+    public void setUp() {
+        mWriter = new DialSvgWriter();
+        mStyleBuilder = new DialSvgWriter.Style.Builder(1);
+    }
+
+    private String svg(int width, int height, int age, boolean showZeroAgeTips) throws IOException {
+        StringWriter out = new StringWriter();
+        mWriter.write(out, mStyleBuilder.build(), width, height, age, showZeroAgeTips);
+        return out.toString();
+    }
+
+    private String svg(int width, int height, int age) throws IOException {
+        return svg(width, height, age, false);
+    }
+
+    private static Document parse(String svg) throws Exception {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        return factory.newDocumentBuilder().parse(new InputSource(new StringReader(svg)));
+    }
+
+    private static List<Element> elements(Document document, String name) {
+        NodeList nodes = document.getElementsByTagNameNS(SVG_NS, name);
+        List<Element> elements = new ArrayList<>();
+        for (int i = 0; i < nodes.getLength(); i++) {
+            elements.add((Element) nodes.item(i));
+        }
+        return elements;
+    }
+
+    /**
+     * 年龄文本分组(按出现顺序)中的文本
+     */
+    private static List<List<String>> labelGroups(Document document) {
+        List<List<String>> groups = new ArrayList<>();
+        for (Element group : elements(document, "g")) {
+            if (!AGE_TEXT_SIZE.equals(group.getAttribute("font-size"))) {
+                continue;
+            }
+            List<String> labels = new ArrayList<>();
+            NodeList texts = group.getElementsByTagNameNS(SVG_NS, "text");
+            for (int i = 0; i < texts.getLength(); i++) {
+                labels.add(texts.item(i).getTextContent());
+            }
+            groups.add(labels);
+        }
+        return groups;
+    }
+
+    private static List<String> ages(int from, int to) {
+        List<String> ages = new ArrayList<>();
+        for (int age = from; age <= to; age += DialGeometry.AGE_STEP) {
+            ages.add(String.valueOf(age));
+        }
+        return ages;
+    }
+
+    private static String hex(int color) {
+        return String.format("#%06X", color & 0xFFFFFF);
+    }
+
+    private static Element percentText(Document document) {
+        for (Element text : elements(document, "text")) {
+            if (text.getTextContent().endsWith("%")) {
+                return text;
+            }
+        }
+        throw new AssertionError("no percent text");
+    }
+
+    /**
+     * translate之后的部分,即表盘本身
+     */
+    private static String dial(String svg) {
+        return svg.substring(svg.indexOf(")\">"));
+    }
+
+    // ---------------------------------------------------------------- 数字
+
+    @Test
+    public void number_trimsTrailingZeros() throws Exception {
+        mStyleBuilder.setCenterCircleRadius(1.1F).setPointerLineWidth(3);
+        String svg = svg(101, 101, 30);
+        assertTrue(svg, svg.contains("translate(50.5 50.5)"));
+        assertTrue(svg, svg.contains(" r=\"1.1\""));
+        assertTrue(svg, svg.contains("stroke-width=\"3\""));
+    }
+
+    @Test
+    public void number_roundsToTwoDecimals() throws Exception {
+        mStyleBuilder.setCenterCircleRadius(1.006F).setPointerLineWidth(2.996F);
+        String svg = svg(400, 400, 30);
+        assertTrue(svg, svg.contains(" r=\"1.01\""));
+        assertTrue(svg, svg.contains("stroke-width=\"3\""));
+    }
+
+    @Test
+    public void number_writesNegatives() throws Exception {
+        // 0岁圆点: -100 + 20 + 0.73 * 20 / 2 + 4 + 5 = -63.7
+        mStyleBuilder.setAgeTextSize(20).setAgeTextOffset(20).setZeroAgeDownCircleRadius(4)
+                .setZeroAgeDownCircleOffset(5);
+        String svg = svg(200, 200, 0);
+        assertTrue(svg, svg.contains("cy=\"-63.7\""));
+
+        // 整数部分为0的负数
+        mStyleBuilder.setZeroAgeDownCircleOffset(68.65F);
+        svg = svg(200, 200, 0);
+        assertTrue(svg, svg.contains("cy=\"-0.05\""));
+    }
+
+    @Test
+    public void number_roundsTinyNegativesToZero() throws Exception {
+        mStyleBuilder.setAgeTextSize(20).setAgeTextOffset(20).setZeroAgeDownCircleRadius(4)
+                .setZeroAgeDownCircleOffset(68.696F);
+        String svg = svg(200, 200, 0);
+        assertTrue(svg, svg.contains("cy=\"0\""));
+        assertTrue(svg, !svg.contains("-0\""));
+    }
+
+    // ---------------------------------------------------------------- 结构
+
+    @Test
+    public void write_producesWellFormedSvg() throws Exception {
+        mStyleBuilder.setPointerLineColor(0x80FF0000);
+        Document document = parse(svg(400, 300, 30, true));
+        Element root = document.getDocumentElement();
+        assertEquals(SVG_NS, root.getNamespaceURI());
+        assertEquals("svg", root.getLocalName());
+        assertEquals("400", root.getAttribute("width"));
+        assertEquals("300", root.getAttribute("height"));
+        assertEquals("0 0 400 300", root.getAttribute("viewBox"));
+        // 0岁圆点与中心圆点
+        assertEquals(2, elements(document, "circle").size());
+        assertEquals(1, elements(document, "rect").size());
+        Element line = elements(document, "line").get(0);
+        assertEquals("#FF0000", line.getAttribute("stroke"));
+        assertEquals("0.5", line.getAttribute("stroke-opacity"));
+    }
+
+    @Test
+    public void write_withoutPointer_writesLabelsAndDotOnly() throws Exception {
+        Document document = parse(svg(400, 400, 0));
+        assertEquals(1, elements(document, "circle").size());
+        assertEquals(0, elements(document, "line").size());
+        assertEquals(0, elements(document, "rect").size());
+        assertEquals(DialGeometry.labelCount(80), elements(document, "text").size());
+    }
+
+    @Test
+    public void write_splitsLabelsIntoPastAndFutureGroups() throws Exception {
+        Document document = parse(svg(400, 400, 30));
+        List<List<String>> groups = labelGroups(document);
+        assertEquals(2, groups.size());
+        // 指针正好指向30,30算作已扫过
+        assertEquals(ages(0, 30), groups.get(0));
+        assertEquals(ages(35, 80), groups.get(1));
+
+        List<String> fills = new ArrayList<>();
+        for (Element group : elements(document, "g")) {
+            if (AGE_TEXT_SIZE.equals(group.getAttribute("font-size"))) {
+                fills.add(group.getAttribute("fill"));
+            }
+        }
+        assertEquals(hex(PAST_COLOR), fills.get(0));
+        assertEquals(hex(FUTURE_COLOR), fills.get(1));
+    }
+
+    @Test
+    public void write_atZeroAge_onlyZeroLabelIsPast() throws Exception {
+        List<List<String>> groups = labelGroups(parse(svg(400, 400, 0)));
+        assertEquals(2, groups.size());
+        assertEquals(ages(0, 0), groups.get(0));
+        assertEquals(ages(5, 80), groups.get(1));
+    }
+
+    @Test
+    public void write_atMaxAge_writesPastGroupOnly() throws Exception {
+        List<List<String>> groups = labelGroups(parse(svg(400, 400, 80)));
+        assertEquals(1, groups.size());
+        assertEquals(ages(0, 80), groups.get(0));
+    }
+
+    @Test
+    public void write_pointerOnUpperHalf_drawsPercentBelowCenter() throws Exception {
+        // 10岁约42度,70岁约297度
+        for (int age : new int[]{10, 70}) {
+            Element percent = percentText(parse(svg(400, 400, age)));
+            // 0.73 * 60 + 30
+            assertEquals("age " + age, "73.8", percent.getAttribute("y"));
+        }
+    }
+
+    @Test
+    public void write_pointerOnLowerHalf_drawsPercentAboveCenter() throws Exception {
+        // 30岁约127度,50岁约212度
+        for (int age : new int[]{30, 50}) {
+            Element percent = percentText(parse(svg(400, 400, age)));
+            assertEquals("age " + age, "-30", percent.getAttribute("y"));
+        }
+    }
+
+    @Test
+    public void write_nonSquareSize_drawsCenteredSquareDial() throws Exception {
+        String square = dial(svg(200, 200, 30, true));
+        assertEquals(square, dial(svg(400, 200, 30, true)));
+        assertEquals(square, dial(svg(200, 400, 30, true)));
+        assertTrue(svg(400, 200, 30).contains("translate(200 100)"));
+    }
+
+    // ---------------------------------------------------------------- 参数检查
+
+    @Test
+    public void write_rejectsInvalidArguments() throws Exception {
+        DialSvgWriter.Style style = mStyleBuilder.build();
+        StringWriter out = new StringWriter();
+        try {
+            mWriter.write(out, style, 0, 100, 30);
+            fail("width 0 accepted");
+        } catch (IllegalArgumentException expected) {
+        }
+        try {
+            mWriter.write(out, style, 100, -1, 30);
+            fail("height -1 accepted");
+        } catch (IllegalArgumentException expected) {
+        }
+        try {
+            mWriter.write(out, style, 100, 100, -1);
+            fail("age -1 accepted");
+        } catch (IllegalArgumentException expected) {
+        }
+        assertEquals("", out.toString());
+    }
+
+    @Test
+    public void style_rejectsInvalidValues() {
+        try {
+            new DialSvgWriter.Style.Builder(0);
+            fail("density 0 accepted");
+        } catch (IllegalArgumentException expected) {
+        }
+        try {
+            mStyleBuilder.setMaxAge(DialGeometry.AGE_STEP - 1).build();
+            fail("maxAge below step accepted");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+}
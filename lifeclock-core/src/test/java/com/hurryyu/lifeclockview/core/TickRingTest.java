@@ -0,0 +1,75 @@
+package com.hurryyu.lifeclockview.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TickRingTest {
+    private static final int[] INTERVAL_MONTHS = {1, 3, 6, 12, 60};
+    private static final int LABEL_INTERVAL_MONTHS = DialGeometry.AGE_STEP * TickRing.MONTHS_PER_YEAR;
+    private static final float OUTER_RADIUS = 200;
+    private static final float MINOR_LENGTH = 4;
+    private static final float MAJOR_LENGTH = 8;
+
+    private static float length(float[] lines, int index) {
+        float dx = lines[index * 4] - lines[index * 4 + 2];
+        float dy = lines[index * 4 + 1] - lines[index * 4 + 3];
+        return (float) Math.sqrt(dx * dx + dy * dy);
+    }
+
+    @Test
+    public void compute_majorTicksFollowInterval() {
+        TickRing ring = new TickRing();
+        for (int interval : INTERVAL_MONTHS) {
+            ring.compute(80, interval, OUTER_RADIUS, MINOR_LENGTH, MAJOR_LENGTH);
+            assertEquals(80 * TickRing.MONTHS_PER_YEAR / interval + 1, ring.getCount());
+            // 间隔小于一年时整年为主刻度,否则年龄文本所在的位置为主刻度
+            int majorMonths = interval < TickRing.MONTHS_PER_YEAR ? TickRing.MONTHS_PER_YEAR : LABEL_INTERVAL_MONTHS;
+            float[] lines = ring.getLines();
+            for (int i = 0; i < ring.getCount(); i++) {
+                int months = i * interval;
+                float expected = months % majorMonths == 0 ? MAJOR_LENGTH : MINOR_LENGTH;
+                assertEquals("interval " + interval + ", month " + months, expected, length(lines, i), 0.01F);
+            }
+        }
+    }
+
+    @Test
+    public void compute_everyLabelHasMajorTick() {
+        TickRing ring = new TickRing();
+        for (int interval : INTERVAL_MONTHS) {
+            ring.compute(80, interval, OUTER_RADIUS, MINOR_LENGTH, MAJOR_LENGTH);
+            for (int age = 0; age <= 80; age += DialGeometry.AGE_STEP) {
+                int index = age * TickRing.MONTHS_PER_YEAR / interval;
+                assertEquals("interval " + interval + ", age " + age, MAJOR_LENGTH, length(ring.getLines(), index), 0.01F);
+            }
+        }
+    }
+
+    @Test
+    public void chooseIntervalMonths_alwaysDividesLabelInterval() {
+        for (int maxAge = DialGeometry.AGE_STEP; maxAge <= DialGeometry.MAX_AGE; maxAge += DialGeometry.AGE_STEP) {
+            for (float radius = 10; radius <= 1000; radius += 10) {
+                int months = TickRing.chooseIntervalMonths(maxAge, TickRing.MONTHS_PER_YEAR, radius, 3);
+                assertTrue("maxAge " + maxAge + ", radius " + radius + ": " + months,
+                        months >= TickRing.MONTHS_PER_YEAR && LABEL_INTERVAL_MONTHS % months == 0);
+                months = TickRing.chooseIntervalMonths(maxAge, 1, radius, 3);
+                assertEquals("maxAge " + maxAge + ", radius " + radius + ": " + months, 0, LABEL_INTERVAL_MONTHS % months);
+            }
+        }
+    }
+
+    @Test
+    public void compute_rejectsIntervalNotDividingLabelInterval() {
+        TickRing ring = new TickRing();
+        for (int interval : new int[]{0, -1, 24, 7}) {
+            try {
+                ring.compute(80, interval, OUTER_RADIUS, MINOR_LENGTH, MAJOR_LENGTH);
+                fail("interval " + interval + " accepted");
+            } catch (IllegalArgumentException expected) {
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+#!/usr/bin/env python3
+"""Generate app/src/main/assets/life_table.lct.
+
+The values are NOT an official actuarial table. For each region and sex a
+Gompertz-Makeham hazard mu(x) = A + B * exp(C * x) is fitted so that life
+expectancy at birth matches the approximate WHO 2019 estimates below. The
+remaining life expectancy e(x) for ages 0..110 is then written out. Replace
+TARGETS (or the whole file, keeping the format) to use real period tables.
+
+Format (big-endian, read by com.hurryyu.lifeclockview.core.LifeTable):
+    int    magic 'LCLT'
+    short  version (1)
+    short  age count (ages 0..count-1)
+    short  sex count (0 = male, 1 = female)
+    short  region count
+    region count * 2 bytes  ISO 3166-1 alpha-2 code, the first region is the fallback
+    region * sex * age unsigned shorts  e(x) in 1/100 years
+"""
+import math
+import os
+import struct
+
+AGE_COUNT = 111
+MAKEHAM_A = 0.0005
+GOMPERTZ_C = 0.1
+STEP = 0.05
+MAX_AGE = 130.0
+
+# region: (male e0, female e0); "ZZ" is the world average and the fallback
+TARGETS = [
+    ("ZZ", 70.8, 75.9),
+    ("CN", 74.7, 80.5),
+    ("US", 76.3, 81.4),
+    ("JP", 81.5, 86.9),
+    ("GB", 79.8, 83.0),
+    ("DE", 78.7, 83.3),
+    ("IN", 69.5, 72.2),
+    ("BR", 72.4, 79.4),
+]
+
+
+def remaining(b, age):
+    """e(age) by integrating survival from age to MAX_AGE."""
+    total = 0.0
+    survival = 1.0
+    x = age
+    while x < MAX_AGE:
+        hazard = MAKEHAM_A + b * math.exp(GOMPERTZ_C * x)
+        next_survival = survival * math.exp(-hazard * STEP)
+        total += (survival + next_survival) / 2 * STEP
+        survival = next_survival
+        x += STEP
+    return total
+
+
+def fit(e0):
+    low, high = 1e-9, 1e-2
+    for _ in range(80):
+        mid = math.sqrt(low * high)
+        if remaining(mid, 0) > e0:
+            low = mid
+        else:
+            high = mid
+    return math.sqrt(low * high)
+
+
+def main():
+    out = os.path.join(os.path.dirname(__file__), "..", "..", "app", "src", "main", "assets", "life_table.lct")
+    data = bytearray(struct.pack(">ihhhh", 0x4C434C54, 1, AGE_COUNT, 2, len(TARGETS)))
+    for code, _, _ in TARGETS:
+        data += code.encode("ascii")
+    for _, male, female in TARGETS:
+        for e0 in (male, female):
+            b = fit(e0)
+            for age in range(AGE_COUNT):
+                data += struct.pack(">H", int(round(remaining(b, age) * 100)))
+    with open(out, "wb") as f:
+        f.write(data)
+
+
+if __name__ == "__main__":
+    main()